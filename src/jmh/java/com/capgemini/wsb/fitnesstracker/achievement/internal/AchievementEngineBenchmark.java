@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the sustained throughput of the {@link AchievementEngine}, with several ingesting threads feeding it trainings
+ * of random users, as the training write path does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+public class AchievementEngineBenchmark {
+
+    private static final int TRAININGS = 1 << 16;
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final Instant FIRST_START = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Param({"10000", "1000000"})
+    private int users;
+
+    private AchievementEngine engine;
+    private TrainingSnapshot[] trainings;
+
+    @Setup(Level.Trial)
+    public void createTrainings() {
+        engine = new AchievementEngine();
+        trainings = new TrainingSnapshot[TRAININGS];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < TRAININGS; i++) {
+            Instant start = FIRST_START.plus(Duration.ofHours(random.nextInt(24 * 365)));
+            trainings[i] = new TrainingSnapshot((long) i,
+                                                1L + random.nextInt(users),
+                                                start,
+                                                start.plus(Duration.ofMinutes(30 + random.nextInt(90))),
+                                                ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)],
+                                                random.nextDouble(1, 60),
+                                                random.nextDouble(5, 30));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next = (int) Thread.currentThread().getId() * 7919;
+
+        TrainingSnapshot next(TrainingSnapshot[] trainings) {
+            return trainings[next++ & (TRAININGS - 1)];
+        }
+    }
+
+    @Benchmark
+    public List<Award> newTraining(Cursor cursor) {
+        return engine.onTrainingSaved(null, cursor.next(trainings));
+    }
+
+    @Benchmark
+    public List<Award> updatedTraining(Cursor cursor) {
+        TrainingSnapshot training = cursor.next(trainings);
+        return engine.onTrainingSaved(training, training);
+    }
+}
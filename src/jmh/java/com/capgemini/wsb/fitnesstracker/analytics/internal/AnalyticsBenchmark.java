@@ -0,0 +1,79 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.analytics.api.ActivityAggregate;
+import com.capgemini.wsb.fitnesstracker.analytics.api.AnalyticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the aggregation of all trainings of the last 90 days per activity type answered by the {@link AnalyticsProvider}
+ * with the same aggregation computed over the {@code Training} entities streamed from H2.
+ * The application is filled by the synthetic data generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyticsBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsProvider analyticsProvider;
+    private TrainingService trainingService;
+    private TransactionTemplate transactionTemplate;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(FitnessTracker.class)
+                .web(WebApplicationType.NONE)
+                .profiles("syntheticData")
+                .properties("spring.datasource.url=jdbc:h2:mem:analytics-benchmark",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN",
+                            "loader.synthetic.users=1000",
+                            "loader.synthetic.trainings=200000",
+                            "loader.synthetic.rebuild-statistics=false")
+                .run();
+        analyticsProvider = context.getBean(AnalyticsProvider.class);
+        trainingService = context.getBean(TrainingService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        to = Instant.now();
+        from = to.minus(90, ChronoUnit.DAYS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ActivityAggregate> columnarStore() {
+        return analyticsProvider.aggregateByActivityType(from, to, null);
+    }
+
+    @Benchmark
+    public double[] entityStream() {
+        double[] distances = new double[ActivityType.values().length];
+        transactionTemplate.executeWithoutResult(status -> trainingService.exportTrainings(training -> {
+            Instant start = training.getStartTime().toInstant();
+            if (!start.isBefore(from) && start.isBefore(to)) {
+                distances[training.getActivityType().ordinal()] += training.getDistance();
+            }
+        }));
+        return distances;
+    }
+}
@@ -0,0 +1,59 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the aggregations of the {@link ColumnarTrainingStore} alone, for stores of one and ten million trainings
+ * spread over a year and ten thousand users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnarTrainingStoreBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final Instant YEAR_START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long QUARTER_START = Instant.parse("2024-04-01T00:00:00Z").toEpochMilli();
+    private static final long QUARTER_END = Instant.parse("2024-07-01T00:00:00Z").toEpochMilli();
+
+    @Param({"1000000", "10000000"})
+    public int trainings;
+
+    private ColumnarTrainingStore store;
+
+    @Setup(Level.Trial)
+    public void fillStore() {
+        store = new ColumnarTrainingStore();
+        ActivityType[] activityTypes = ActivityType.values();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < trainings; i++) {
+            Instant start = YEAR_START.plusSeconds(random.nextLong(365L * 24 * 3600));
+            store.put(new TrainingSnapshot((long) i,
+                                           (long) random.nextInt(USERS),
+                                           start,
+                                           start.plusSeconds(random.nextInt(1800, 7200)),
+                                           activityTypes[random.nextInt(activityTypes.length)],
+                                           random.nextDouble(1, 50),
+                                           random.nextDouble(3, 30)));
+        }
+    }
+
+    @Benchmark
+    public ColumnarTrainingStore.ActivityTotals aggregateQuarterOfAllUsers() {
+        return store.aggregate(QUARTER_START, QUARTER_END, ColumnarTrainingStore.ANY_USER);
+    }
+
+    @Benchmark
+    public ColumnarTrainingStore.ActivityTotals aggregateQuarterOfOneUser() {
+        return store.aggregate(QUARTER_START, QUARTER_END, 4242L);
+    }
+}
@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.FitnessTracker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the collection endpoints over HTTP, comparing request execution on the Tomcat platform thread pool
+ * with execution on virtual threads ({@code virtualThreads} profile).
+ * <p>
+ * The application is started with the web server on a random port and filled by the synthetic data generator.
+ * Many more client threads than Tomcat worker threads issue requests concurrently. Throughput is measured in one mode
+ * and the latency distribution (including p0.99) in the sample-time mode.
+ * <p>
+ * Virtual threads need Java 21. The {@code jmh} profile runs the {@code virtual} trials only when the build runs on Java 21 or newer
+ * ({@code jmh.executionModes} property); started otherwise on an older runtime, they fail in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class HttpLoadBenchmark {
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    @Param({"platform", "virtual"})
+    public String executionMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest usersRequest;
+    private HttpRequest trainingsRequest;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        boolean virtual = "virtual".equals(executionMode);
+        if (virtual && Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+            throw new IllegalStateException("Virtual threads require Java %d, running on %s"
+                                                    .formatted(VIRTUAL_THREADS_JAVA_VERSION, Runtime.version()));
+        }
+        SpringApplicationBuilder application = new SpringApplicationBuilder(FitnessTracker.class)
+                .properties("server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:http-benchmark-" + executionMode,
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN",
+                            "loader.synthetic.users=2000",
+                            "loader.synthetic.trainings=50000");
+        context = (virtual ? application.profiles("syntheticData", "virtualThreads") : application.profiles("syntheticData")).run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        usersRequest = HttpRequest.newBuilder(URI.create("http://localhost:%d/v1/users?size=50".formatted(port))).build();
+        trainingsRequest = HttpRequest.newBuilder(URI.create("http://localhost:%d/v1/trainings?size=50".formatted(port))).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int getUsers() throws IOException, InterruptedException {
+        return send(usersRequest);
+    }
+
+    @Benchmark
+    public int getTrainings() throws IOException, InterruptedException {
+        return send(trainingsRequest);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("%s returned %d".formatted(request.uri(), response.statusCode()));
+        }
+        return response.body().length;
+    }
+}
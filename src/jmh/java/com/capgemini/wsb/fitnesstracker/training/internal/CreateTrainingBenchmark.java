@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.ApplicationState;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TrainingService#createTraining(TrainingDTO)} against H2, including the listeners
+ * maintaining the derived data within the same transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CreateTrainingBenchmark {
+
+    private TrainingService trainingService;
+    private TrainingDTO training;
+
+    @Setup(Level.Trial)
+    public void createUser(ApplicationState application) {
+        trainingService = application.getBean(TrainingService.class);
+        User user = application.getBean(UserRepository.class)
+                .save(new User("Emma", "Johnson", LocalDate.of(1996, 5, 17), "emma.johnson@domain.com"));
+        training = new TrainingDTO(null, user.getId(), new Date(1_700_000_000_000L), new Date(1_700_003_600_000L),
+                                   ActivityType.RUNNING, 10.5, 8.2);
+    }
+
+    @Benchmark
+    public Training createTraining() {
+        return trainingService.createTraining(training);
+    }
+}
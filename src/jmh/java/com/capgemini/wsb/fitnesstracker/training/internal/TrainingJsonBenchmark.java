@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Jackson serialization of a {@link Training} with its nested {@link User}, as done by the REST endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrainingJsonBenchmark {
+
+    private ObjectWriter writer;
+    private Training training;
+
+    @Setup
+    public void createTraining() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(Training.class);
+        User user = new User("Emma", "Johnson", LocalDate.of(1996, 5, 17), "emma.johnson@domain.com");
+        user.setId(42L);
+        training = new Training(user, new Date(1_700_000_000_000L), new Date(1_700_003_600_000L), ActivityType.RUNNING, 10.5, 8.2);
+        training.setId(7L);
+    }
+
+    @Benchmark
+    public String serializeTraining() throws JsonProcessingException {
+        return writer.writeValueAsString(training);
+    }
+}
@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.ApplicationState;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the database of a benchmark application with many users, inserted with plain JDBC batches to keep the setup short.
+ * The emails follow the {@code User<n>@Example.com} pattern, so that the email fragments searched for match a known share of the users.
+ */
+final class BenchmarkUsers {
+
+    private static final String INSERT_USER = "insert into users (first_name, last_name, birthdate, email) values (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+    private static final LocalDate FIRST_BIRTHDATE = LocalDate.of(1950, 1, 1);
+
+    private BenchmarkUsers() {
+    }
+
+    static void insert(ApplicationState application, int users) {
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(users, from + BATCH_SIZE); i++) {
+                batch.add(new Object[]{"First" + i, "Last" + i, Date.valueOf(FIRST_BIRTHDATE.plusDays(i % 20_000)), "User" + i + "@Example.com"});
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER, batch);
+        }
+    }
+}
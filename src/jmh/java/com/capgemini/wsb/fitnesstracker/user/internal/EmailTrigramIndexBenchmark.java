@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.ApplicationState;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the email fragment search of the {@link UserService}, answered by the {@link EmailTrigramIndex},
+ * with the {@code like} query of {@link UserRepository#findByEmailContainingIgnoreCase} it replaced, both against H2.
+ * <p>
+ * The first fragment matches a single user, the second one about a thousandth of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmailTrigramIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"r4242@", "r424"})
+    private String fragment;
+
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void createUsers(ApplicationState application) {
+        userService = application.getBean(UserService.class);
+        userRepository = application.getBean(UserRepository.class);
+        BenchmarkUsers.insert(application, users);
+        application.getBean(UserServiceImpl.class).buildEmailIndex();
+    }
+
+    @Benchmark
+    public List<User> trigramIndex() {
+        return userService.searchUsersByEmail(fragment);
+    }
+
+    @Benchmark
+    public List<User> containingIgnoreCase() {
+        return userRepository.findByEmailContainingIgnoreCase(fragment);
+    }
+}
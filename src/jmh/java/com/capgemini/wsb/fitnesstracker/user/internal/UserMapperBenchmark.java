@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions of the {@link UserMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapper();
+    private User user;
+    private UserDto userDto;
+
+    @Setup
+    public void createUser() {
+        user = new User("Emma", "Johnson", LocalDate.of(1996, 5, 17), "emma.johnson@domain.com");
+        user.setId(42L);
+        userDto = userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(userDto);
+    }
+}
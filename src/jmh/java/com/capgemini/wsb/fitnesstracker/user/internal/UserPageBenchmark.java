@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.ApplicationState;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a page of simplified users through the constructor projection of {@link UserRepository#findSimpleUsersAfter}
+ * with the previous entity path: loading the {@code User} entities and mapping them with the {@link UserMapper}.
+ * <p>
+ * The allocation per page is reported by the {@code gc} profiler ({@code gc.alloc.rate.norm}), which the {@code jmh} profile enables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserPageBenchmark {
+
+    private static final int USERS = 200_000;
+
+    @Param({"50", "5000"})
+    private int pageSize;
+
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private long afterId;
+
+    @Setup(Level.Trial)
+    public void createUsers(ApplicationState application) {
+        userRepository = application.getBean(UserRepository.class);
+        userMapper = application.getBean(UserMapper.class);
+        BenchmarkUsers.insert(application, USERS);
+        afterId = userRepository.findSimpleUsersAfter(Long.MIN_VALUE, Limit.of(USERS / 2)).get(USERS / 2 - 1).id();
+    }
+
+    @Benchmark
+    public List<UserSimpleDto> constructorProjection() {
+        return userRepository.findSimpleUsersAfter(afterId, Limit.of(pageSize));
+    }
+
+    @Benchmark
+    public List<UserDto> entitiesMappedToDto() {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize)).stream().map(userMapper::toDto).toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.ApplicationState;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the user searches going through the {@link UserService} against H2.
+ * The email searches are measured by {@link EmailTrigramIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final LocalDate FIRST_BIRTHDATE = LocalDate.of(1950, 1, 1);
+
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void createUsers(ApplicationState application) {
+        userService = application.getBean(UserService.class);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("First" + i, "Last" + i, FIRST_BIRTHDATE.plusDays(i), "user" + i + "@example.com"));
+        }
+        application.getBean(UserRepository.class).saveAll(users);
+    }
+
+    @Benchmark
+    public List<User> findUsersOlderThan() {
+        return userService.findUsersOlderThan(FIRST_BIRTHDATE.plusDays(USERS / 2), USERS / 4, 50);
+    }
+}
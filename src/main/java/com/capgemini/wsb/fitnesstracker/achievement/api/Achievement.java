@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entity representing an achievement awarded to a {@link User} for a given {@link AchievementRule} and period.
+ */
+@Entity
+@Table(name = "achievements",
+       uniqueConstraints = @UniqueConstraint(name = "uk_achievements_award", columnNames = {"user_id", "code", "period"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class Achievement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "code", nullable = false, length = 32)
+    private AchievementRule code;
+
+    /**
+     * Label of the period the achievement was awarded for ({@code yyyy-MM} for monthly rules, empty otherwise).
+     */
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "awarded_at", nullable = false)
+    private Instant awardedAt;
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import java.time.Instant;
+
+/**
+ * Achievement awarded to a user.
+ */
+public record AchievementDto(AchievementRule code, String period, Instant awardedAt) {
+
+    public static AchievementDto of(Achievement achievement) {
+        return new AchievementDto(achievement.getCode(), achievement.getPeriod(), achievement.getAwardedAt());
+    }
+}
@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import java.util.List;
+
+public interface AchievementProvider {
+
+    /**
+     * Retrieves the achievements awarded to the given user.
+     *
+     * @param userId id of the user whose achievements are to be retrieved
+     * @return List of the achievements of the user, ordered by the time they were awarded
+     */
+    List<AchievementDto> getUserAchievements(Long userId);
+
+}
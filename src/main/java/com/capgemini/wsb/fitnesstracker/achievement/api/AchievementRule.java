@@ -0,0 +1,134 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Rules an {@link Achievement} can be awarded for.
+ * <p>
+ * A rule either looks at single trainings (awarded once the value of one training reaches the threshold),
+ * or accumulates the values of all trainings of a user within a period (awarded once the sum reaches the threshold).
+ * Every rule is awarded at most once per user and period.
+ */
+public enum AchievementRule {
+
+    /**
+     * A single run of at least 10 km.
+     */
+    FIRST_10K_RUN(ActivityType.RUNNING, false, false, 10) {
+        @Override
+        public double valueOf(TrainingSnapshot training) {
+            return training.distance();
+        }
+    },
+
+    /**
+     * At least 100 km cycled within a calendar month.
+     */
+    CYCLED_100K_IN_MONTH(ActivityType.CYCLING, true, true, 100) {
+        @Override
+        public double valueOf(TrainingSnapshot training) {
+            return training.distance();
+        }
+    },
+
+    /**
+     * At least 100 trainings of any activity type.
+     */
+    HUNDRED_TRAININGS(null, true, false, 100) {
+        @Override
+        public double valueOf(TrainingSnapshot training) {
+            return 1;
+        }
+    };
+
+    /**
+     * Period of the rules which are awarded only once per user.
+     */
+    public static final int LIFETIME = 0;
+
+    @Nullable
+    private final ActivityType activityType;
+    private final boolean cumulative;
+    private final boolean monthly;
+    private final double threshold;
+
+    AchievementRule(@Nullable ActivityType activityType, boolean cumulative, boolean monthly, double threshold) {
+        this.activityType = activityType;
+        this.cumulative = cumulative;
+        this.monthly = monthly;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the value the training contributes to the rule, e.g. its distance.
+     *
+     * @param training the training
+     * @return the value of the training
+     */
+    public abstract double valueOf(TrainingSnapshot training);
+
+    /**
+     * Checks whether the training counts towards the rule.
+     *
+     * @param training the training
+     * @return true if the training counts towards the rule
+     */
+    public boolean appliesTo(TrainingSnapshot training) {
+        return activityType == null || activityType == training.activityType();
+    }
+
+    public boolean isCumulative() {
+        return cumulative;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Gets the period the training falls into, as a compact number: the month (counted from January 1970, starting at 1)
+     * of the training start time (UTC) for monthly rules, {@link #LIFETIME} otherwise.
+     *
+     * @param training the training
+     * @return the period of the training
+     */
+    public int periodOf(TrainingSnapshot training) {
+        if (!monthly) {
+            return LIFETIME;
+        }
+        return periodOf(YearMonth.from(training.startTime().atZone(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Parses the label returned by {@link #periodLabel(int)} back into a period.
+     *
+     * @param label the label of the period
+     * @return the period
+     */
+    public static int parsePeriod(String label) {
+        return label.isEmpty() ? LIFETIME : periodOf(YearMonth.parse(label));
+    }
+
+    /**
+     * Gets the human-readable label of a period returned by {@link #periodOf(TrainingSnapshot)}: {@code yyyy-MM} for monthly rules,
+     * an empty string for the lifetime period.
+     *
+     * @param period the period
+     * @return the label of the period
+     */
+    public static String periodLabel(int period) {
+        if (period == LIFETIME) {
+            return "";
+        }
+        return YearMonth.of(1970 + (period - 1) / 12, (period - 1) % 12 + 1).toString();
+    }
+
+    private static int periodOf(YearMonth month) {
+        return (month.getYear() - 1970) * 12 + month.getMonthValue();
+    }
+}
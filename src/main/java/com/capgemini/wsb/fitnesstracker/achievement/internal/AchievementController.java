@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementDto;
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for reading the achievements of users.
+ */
+@RestController
+@RequestMapping("/v1/achievements")
+@RequiredArgsConstructor
+class AchievementController {
+
+    private final AchievementProvider achievementProvider;
+
+    /**
+     * Retrieves the achievements of a user.
+     *
+     * @param userId the ID of the user.
+     * @return the achievements of the user, ordered by the time they were awarded.
+     */
+    @GetMapping("/user/{userId}")
+    public List<AchievementDto> getUserAchievements(@PathVariable Long userId) {
+        return achievementProvider.getUserAchievements(userId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementRule;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.annotation.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates the {@link AchievementRule}s incrementally, one saved training at a time, without reading the training history.
+ * <p>
+ * The progress of every user, rule and period is kept in memory in {@link LongDoubleHashMap}s, keyed by a single {@code long}
+ * packing the user ID, the rule and the period. Once awarded, the progress is set to {@link Double#POSITIVE_INFINITY},
+ * so the award is never repeated and later changes of the training do not revoke it.
+ * The state is split into shards by user ID, each guarded by its own lock, so trainings of different users are evaluated in parallel.
+ */
+@Component
+class AchievementEngine {
+
+    private static final int SHARDS = 64;
+    private static final double AWARDED = Double.POSITIVE_INFINITY;
+    private static final AchievementRule[] RULES = AchievementRule.values();
+
+    private final ReentrantLock[] locks = new ReentrantLock[SHARDS];
+    private final LongDoubleHashMap[] progress = new LongDoubleHashMap[SHARDS];
+
+    AchievementEngine() {
+        for (int i = 0; i < SHARDS; i++) {
+            locks[i] = new ReentrantLock();
+            progress[i] = new LongDoubleHashMap(1024);
+        }
+    }
+
+    /**
+     * Applies the change of a training to the progress of its user (or users, if the training was moved to another user).
+     *
+     * @param previous the state of the training before the change, null for a new training
+     * @param current  the state of the training after the change
+     * @return the achievements reached with this change, each returned only once
+     */
+    List<Award> onTrainingSaved(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+        List<Award> awards = new ArrayList<>(0);
+        boolean sameUser = previous != null && Objects.equals(previous.userId(), current.userId());
+        if (previous != null && !sameUser) {
+            withShard(previous.userId(), shard -> subtract(shard, previous));
+        }
+        withShard(current.userId(), shard -> {
+            if (sameUser) {
+                subtract(shard, previous);
+            }
+            add(shard, current, awards);
+        });
+        return awards;
+    }
+
+    /**
+     * Marks the achievement as already awarded, so that it is never returned by {@link #onTrainingSaved}.
+     *
+     * @param userId the ID of the user
+     * @param rule   the rule
+     * @param period the period of the award
+     */
+    void markAwarded(Long userId, AchievementRule rule, int period) {
+        withShard(userId, shard -> shard.put(key(userId, rule, period), AWARDED));
+    }
+
+    /**
+     * Forgets the progress of all users.
+     */
+    void clear() {
+        for (int i = 0; i < SHARDS; i++) {
+            int shard = i;
+            withLock(shard, () -> progress[shard].clear());
+        }
+    }
+
+    private void add(LongDoubleHashMap shard, TrainingSnapshot training, List<Award> awards) {
+        for (AchievementRule rule : RULES) {
+            if (!rule.appliesTo(training)) {
+                continue;
+            }
+            int period = rule.periodOf(training);
+            long key = key(training.userId(), rule, period);
+            double reached = rule.isCumulative()
+                    ? shard.addTo(key, rule.valueOf(training))
+                    : Math.max(rule.valueOf(training), shard.get(key, 0));
+            if (reached != AWARDED && reached >= rule.getThreshold()) {
+                shard.put(key, AWARDED);
+                awards.add(new Award(training.userId(), rule, period));
+            }
+        }
+    }
+
+    private void subtract(LongDoubleHashMap shard, TrainingSnapshot training) {
+        for (AchievementRule rule : RULES) {
+            if (rule.isCumulative() && rule.appliesTo(training)) {
+                shard.addTo(key(training.userId(), rule, rule.periodOf(training)), -rule.valueOf(training));
+            }
+        }
+    }
+
+    private void withShard(Long userId, Consumer<LongDoubleHashMap> action) {
+        int shard = (int) Math.floorMod(userId, (long) SHARDS);
+        withLock(shard, () -> action.accept(progress[shard]));
+    }
+
+    private void withLock(int shard, Runnable action) {
+        locks[shard].lock();
+        try {
+            action.run();
+        } finally {
+            locks[shard].unlock();
+        }
+    }
+
+    /**
+     * Packs the user ID (up to 40 bits), the rule (8 bits) and the period (16 bits) into a single non-zero key.
+     */
+    private static long key(Long userId, AchievementRule rule, int period) {
+        return (userId << 24) | ((long) rule.ordinal() << 16) | period;
+    }
+}
@@ -0,0 +1,130 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementRule;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Feeds every committed training write into the {@link AchievementEngine} and stores the resulting awards.
+ * <p>
+ * Trainings are evaluated only after their transaction commits, so a rolled back write never changes the progress,
+ * and the awards are stored in a separate transaction, so they never fail the training write.
+ * Once the application is ready, the engine state is rebuilt from the stored awards and a single pass over all trainings.
+ * <p>
+ * The trainings written during the rebuild are not evaluated right away, but buffered. The pass skips the trainings written
+ * before it reaches them, and the buffered writes are applied once it ends, in the same way as by the leaderboards,
+ * so a training committed during the rebuild is counted once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class AchievementRecorder {
+
+    private final AchievementEngine achievementEngine;
+    private final AchievementRepository achievementRepository;
+    private final TrainingService trainingService;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    @Nullable
+    private volatile Map<Long, RebuildWrite> writesDuringRebuild;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            Map<Long, RebuildWrite> writes = writesDuringRebuild;
+            if (writes == null) {
+                store(achievementEngine.onTrainingSaved(event.previous(), event.current()));
+            } else {
+                writes.merge(event.current().trainingId(),
+                             new RebuildWrite(event.previous(), event.current()),
+                             (first, last) -> new RebuildWrite(first.previous(), last.current()));
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTrainingBatchSaved(TrainingBatchSavedEvent event) {
+        event.savedTrainings().forEach(this::onTrainingSaved);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildProgress() {
+        Map<Long, RebuildWrite> writes = new ConcurrentHashMap<>();
+        List<Achievement> awarded;
+        rebuildLock.writeLock().lock();
+        try {
+            writesDuringRebuild = writes;
+            achievementEngine.clear();
+            awarded = achievementRepository.findAll();
+            awarded.forEach(achievement -> achievementEngine.markAwarded(achievement.getUser().getId(),
+                                                                         achievement.getCode(),
+                                                                         AchievementRule.parsePeriod(achievement.getPeriod())));
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        Set<Long> skipped = new HashSet<>();
+        try {
+            trainingService.exportTrainings(training -> {
+                if (writes.containsKey(training.getId())) {
+                    skipped.add(training.getId());
+                } else {
+                    store(achievementEngine.onTrainingSaved(null, TrainingSnapshot.of(training)));
+                }
+            });
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                writes.forEach((trainingId, write) -> store(achievementEngine.onTrainingSaved(
+                        skipped.contains(trainingId) ? null : write.previous(), write.current())));
+                writesDuringRebuild = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+        log.info("Achievement progress rebuilt, {} achievements already awarded, {} trainings written meanwhile",
+                 awarded.size(), writes.size());
+    }
+
+    private void store(List<Award> awards) {
+        Instant now = Instant.now();
+        for (Award award : awards) {
+            if (achievementRepository.insertIfAbsent(award.userId(),
+                                                     award.rule().name(),
+                                                     AchievementRule.periodLabel(award.period()),
+                                                     now) > 0) {
+                log.debug("Awarded {} ({}) to user {}", award.rule(), AchievementRule.periodLabel(award.period()), award.userId());
+            }
+        }
+    }
+
+    private record RebuildWrite(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    }
+}
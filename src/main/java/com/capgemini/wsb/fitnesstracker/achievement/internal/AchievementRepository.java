@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for managing Achievement entities.
+ */
+interface AchievementRepository extends JpaRepository<Achievement, Long> {
+
+    /**
+     * Finds the achievements of the given user.
+     *
+     * @param userId the ID of the user.
+     * @return the achievements of the user, ordered by the time they were awarded.
+     */
+    List<Achievement> findByUserIdOrderByAwardedAtAscIdAsc(Long userId);
+
+    /**
+     * Stores the achievement unless the user already has it for the given period, so awarding is idempotent.
+     *
+     * @param userId the ID of the user.
+     * @param code the code of the achievement rule.
+     * @param period the label of the period.
+     * @param awardedAt the time of the award.
+     * @return 1 if the achievement was stored, 0 if the user already had it.
+     */
+    @Modifying
+    @Query(value = """
+            insert into achievements (user_id, code, period, awarded_at)
+            select :userId, :code, :period, :awardedAt
+            where not exists (select 1 from achievements a where a.user_id = :userId and a.code = :code and a.period = :period)
+            """, nativeQuery = true)
+    int insertIfAbsent(Long userId, String code, String period, Instant awardedAt);
+}
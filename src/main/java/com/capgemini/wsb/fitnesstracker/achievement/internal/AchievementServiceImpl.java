@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementDto;
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service implementation for reading the achievements of users.
+ * The achievements are awarded by the {@link AchievementRecorder}.
+ */
+@Service
+@RequiredArgsConstructor
+class AchievementServiceImpl implements AchievementProvider {
+
+    private final AchievementRepository achievementRepository;
+
+    /**
+     * Retrieves the achievements awarded to the given user.
+     *
+     * @param userId the ID of the user.
+     * @return the achievements of the user, ordered by the time they were awarded.
+     */
+    @Override
+    public List<AchievementDto> getUserAchievements(Long userId) {
+        return achievementRepository.findByUserIdOrderByAwardedAtAscIdAsc(userId).stream().map(AchievementDto::of).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementRule;
+
+/**
+ * Achievement to be awarded, as decided by the {@link AchievementEngine}.
+ */
+record Award(Long userId, AchievementRule rule, int period) {
+
+}
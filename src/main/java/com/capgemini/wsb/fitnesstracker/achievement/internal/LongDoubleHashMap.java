@@ -0,0 +1,108 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import java.util.Arrays;
+
+/**
+ * Compact hash map from {@code long} keys to {@code double} values, backed by two primitive arrays (open addressing, linear probing),
+ * so that no key or value is boxed. Key {@code 0} is reserved to mark free slots. Entries cannot be removed. Not thread-safe.
+ */
+final class LongDoubleHashMap {
+
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+    private int resizeAt;
+
+    LongDoubleHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(long key, double defaultValue) {
+        int slot = find(key);
+        return keys[slot] == FREE ? defaultValue : values[slot];
+    }
+
+    void put(long key, double value) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            insert(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Adds the delta to the value of the key, treating a missing key as {@code 0}.
+     *
+     * @param key   the key, must not be {@code 0}
+     * @param delta the delta to add
+     * @return the new value of the key
+     */
+    double addTo(long key, double delta) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            insert(slot, key, delta);
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private int find(long key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, long key, double value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.analytics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Aggregated trainings of one activity type.
+ *
+ * @param activityType         the activity type
+ * @param trainings            number of trainings
+ * @param totalDistance        sum of the distances of the trainings
+ * @param averageDistance      average distance of a training
+ * @param averageSpeed         average of the average speeds of the trainings
+ * @param totalDurationSeconds sum of the durations of the trainings
+ */
+public record ActivityAggregate(ActivityType activityType,
+                                long trainings,
+                                double totalDistance,
+                                double averageDistance,
+                                double averageSpeed,
+                                long totalDurationSeconds) {
+
+}
@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.analytics.api;
+
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AnalyticsProvider {
+
+    /**
+     * Aggregates the trainings started within the given time range, per activity type.
+     * The trainings are scanned in memory, so the cost depends on the number of trainings, but not on the database.
+     *
+     * @param from   start of the range (inclusive)
+     * @param to     end of the range (exclusive)
+     * @param userId id of the user whose trainings are aggregated, or null to aggregate the trainings of all users
+     * @return List of the aggregates of the activity types with any trainings in the range, ordered by activity type
+     */
+    List<ActivityAggregate> aggregateByActivityType(Instant from, Instant to, @Nullable Long userId);
+
+}
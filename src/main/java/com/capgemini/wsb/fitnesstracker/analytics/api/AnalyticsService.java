@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.analytics.api;
+
+/**
+ * Interface (API) for maintenance operations on the in-memory training analytics.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Reloads all trainings from the database into the in-memory analytics store.
+     */
+    void rebuildAnalytics();
+
+}
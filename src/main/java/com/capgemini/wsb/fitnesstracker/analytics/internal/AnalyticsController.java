@@ -0,0 +1,55 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.analytics.api.ActivityAggregate;
+import com.capgemini.wsb.fitnesstracker.analytics.api.AnalyticsProvider;
+import com.capgemini.wsb.fitnesstracker.analytics.api.AnalyticsService;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller for aggregate analytics over all trainings.
+ */
+@RestController
+@RequestMapping("/v1/analytics")
+@RequiredArgsConstructor
+class AnalyticsController {
+
+    private final AnalyticsProvider analyticsProvider;
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Aggregates the trainings started within a time range, per activity type.
+     *
+     * @param from   the start of the range (inclusive, ISO-8601 instant, e.g. 2024-01-01T00:00:00Z).
+     * @param to     the end of the range (exclusive, ISO-8601 instant).
+     * @param userId the ID of the user to limit the aggregation to, all users if not given.
+     * @return the count, total and average distance, average speed and total duration of the trainings of each activity type.
+     */
+    @GetMapping("/trainings")
+    public List<ActivityAggregate> aggregateTrainings(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                      @RequestParam(required = false) @Nullable Long userId) {
+        return analyticsProvider.aggregateByActivityType(from, to, userId);
+    }
+
+    /**
+     * Reloads the in-memory analytics from the stored trainings.
+     *
+     * @return a ResponseEntity with status 204.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildAnalytics() {
+        analyticsService.rebuildAnalytics();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.analytics.api.ActivityAggregate;
+import com.capgemini.wsb.fitnesstracker.analytics.api.AnalyticsProvider;
+import com.capgemini.wsb.fitnesstracker.analytics.api.AnalyticsService;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation answering the training analytics from the {@link ColumnarTrainingStore}.
+ * The store is loaded from the database once the application is ready, and every committed training write is applied to it afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+class AnalyticsServiceImpl implements AnalyticsProvider, AnalyticsService {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private final ColumnarTrainingStore columnarTrainingStore;
+    private final TrainingService trainingService;
+
+    @Override
+    public List<ActivityAggregate> aggregateByActivityType(Instant from, Instant to, @Nullable Long userId) {
+        if (!from.isBefore(to)) {
+            throw new BusinessException("Range start %s must be before range end %s".formatted(from, to));
+        }
+        ColumnarTrainingStore.ActivityTotals totals = columnarTrainingStore.aggregate(from.toEpochMilli(),
+                                                                                      to.toEpochMilli(),
+                                                                                      userId == null ? ColumnarTrainingStore.ANY_USER : userId);
+        List<ActivityAggregate> aggregates = new ArrayList<>();
+        for (ActivityType activityType : ACTIVITY_TYPES) {
+            int i = activityType.ordinal();
+            long trainings = totals.trainings[i];
+            if (trainings > 0) {
+                aggregates.add(new ActivityAggregate(activityType,
+                                                     trainings,
+                                                     totals.distance[i],
+                                                     totals.distance[i] / trainings,
+                                                     totals.averageSpeed[i] / trainings,
+                                                     totals.durationMillis[i] / 1000));
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Reloads the store from the database, streaming the trainings in ascending order of IDs.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAnalytics() {
+        columnarTrainingStore.rebuild(consumer -> trainingService.exportTrainings(training -> consumer.accept(TrainingSnapshot.of(training))));
+    }
+
+    /**
+     * Applies the saved training once its transaction commits, so the store never contains rolled back writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        columnarTrainingStore.put(event.current());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingBatchSaved(TrainingBatchSavedEvent event) {
+        event.savedTrainings().forEach(this::onTrainingSaved);
+    }
+}
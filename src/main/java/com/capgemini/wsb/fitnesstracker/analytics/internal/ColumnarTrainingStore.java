@@ -0,0 +1,227 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory columnar copy of all trainings, for aggregations that would otherwise load every {@code Training} entity.
+ * <p>
+ * Each attribute of the trainings is kept in its own primitive array (user id, start and end as epoch milliseconds,
+ * activity type ordinal, distance and average speed), with the rows ordered by training id. Training ids grow monotonically,
+ * so inserts are almost always appends, and an update finds its row with a binary search over the ids.
+ * <p>
+ * An aggregation is a single loop over the arrays, without any object allocated per row.
+ * Stores larger than {@value #SEGMENT_ROWS} rows are scanned in parallel segments on the common fork-join pool.
+ * <p>
+ * Scans take the read lock and writes the write lock. A {@link #rebuild(Consumer) rebuild} loads the new columns without holding the lock,
+ * then replays the writes applied in the meantime and swaps the columns, so no write is lost while the database is being read.
+ */
+@Component
+@Slf4j
+class ColumnarTrainingStore {
+
+    static final int SEGMENT_ROWS = 1 << 16;
+    static final long ANY_USER = Long.MIN_VALUE;
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Columns columns = new Columns();
+    @Nullable
+    private List<TrainingSnapshot> writesDuringRebuild;
+
+    /**
+     * Inserts the training, or replaces its previous state if already stored.
+     *
+     * @param training current state of the training
+     */
+    void put(TrainingSnapshot training) {
+        lock.writeLock().lock();
+        try {
+            columns.put(training);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(training);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole content of the store with the trainings supplied by the given source.
+     *
+     * @param source passes every stored training, in ascending order of ids, to the consumer it is given
+     */
+    void rebuild(Consumer<Consumer<TrainingSnapshot>> source) {
+        rebuildLock.lock();
+        try {
+            setWritesDuringRebuild(new ArrayList<>());
+            Columns rebuilt = new Columns();
+            try {
+                source.accept(rebuilt::put);
+            } catch (RuntimeException e) {
+                setWritesDuringRebuild(null);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild.forEach(rebuilt::put);
+                columns = rebuilt;
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Columnar training store rebuilt with {} trainings", rebuilt.size);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setWritesDuringRebuild(@Nullable List<TrainingSnapshot> writes) {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sums up the trainings started within the given range, per activity type.
+     *
+     * @param fromMillis start of the range, epoch milliseconds (inclusive)
+     * @param toMillis   end of the range, epoch milliseconds (exclusive)
+     * @param userId     id of the user whose trainings are summed up, or {@link #ANY_USER}
+     * @return the totals per activity type
+     */
+    ActivityTotals aggregate(long fromMillis, long toMillis, long userId) {
+        lock.readLock().lock();
+        try {
+            Columns scanned = columns;
+            int size = scanned.size;
+            if (size <= SEGMENT_ROWS) {
+                return scanned.scan(0, size, fromMillis, toMillis, userId);
+            }
+            int segments = (size + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+            return IntStream.range(0, segments)
+                    .parallel()
+                    .mapToObj(segment -> scanned.scan(segment * SEGMENT_ROWS,
+                                                      Math.min(size, (segment + 1) * SEGMENT_ROWS),
+                                                      fromMillis,
+                                                      toMillis,
+                                                      userId))
+                    .reduce(ActivityTotals::merge)
+                    .orElseGet(ActivityTotals::new);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Totals of the scanned trainings, indexed by the ordinal of their {@link ActivityType}.
+     */
+    static final class ActivityTotals {
+
+        final long[] trainings = new long[ACTIVITY_TYPES.length];
+        final double[] distance = new double[ACTIVITY_TYPES.length];
+        final double[] averageSpeed = new double[ACTIVITY_TYPES.length];
+        final long[] durationMillis = new long[ACTIVITY_TYPES.length];
+
+        ActivityTotals merge(ActivityTotals other) {
+            for (int i = 0; i < ACTIVITY_TYPES.length; i++) {
+                trainings[i] += other.trainings[i];
+                distance[i] += other.distance[i];
+                averageSpeed[i] += other.averageSpeed[i];
+                durationMillis[i] += other.durationMillis[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class Columns {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] trainingIds = new long[INITIAL_CAPACITY];
+        private long[] userIds = new long[INITIAL_CAPACITY];
+        private long[] startMillis = new long[INITIAL_CAPACITY];
+        private long[] endMillis = new long[INITIAL_CAPACITY];
+        private byte[] activityTypes = new byte[INITIAL_CAPACITY];
+        private double[] distances = new double[INITIAL_CAPACITY];
+        private double[] averageSpeeds = new double[INITIAL_CAPACITY];
+        private int size;
+
+        void put(TrainingSnapshot training) {
+            int row = Arrays.binarySearch(trainingIds, 0, size, training.trainingId());
+            if (row < 0) {
+                row = -row - 1;
+                insertRowAt(row);
+                trainingIds[row] = training.trainingId();
+            }
+            userIds[row] = training.userId();
+            startMillis[row] = training.startTime().toEpochMilli();
+            endMillis[row] = training.endTime().toEpochMilli();
+            activityTypes[row] = (byte) training.activityType().ordinal();
+            distances[row] = training.distance();
+            averageSpeeds[row] = training.averageSpeed();
+        }
+
+        ActivityTotals scan(int fromRow, int toRow, long fromMillis, long toMillis, long userId) {
+            ActivityTotals totals = new ActivityTotals();
+            for (int row = fromRow; row < toRow; row++) {
+                long start = startMillis[row];
+                if (start >= fromMillis && start < toMillis && (userId == ANY_USER || userIds[row] == userId)) {
+                    int activityType = activityTypes[row];
+                    totals.trainings[activityType]++;
+                    totals.distance[activityType] += distances[row];
+                    totals.averageSpeed[activityType] += averageSpeeds[row];
+                    totals.durationMillis[activityType] += endMillis[row] - start;
+                }
+            }
+            return totals;
+        }
+
+        private void insertRowAt(int row) {
+            if (size == trainingIds.length) {
+                int capacity = size * 2;
+                trainingIds = Arrays.copyOf(trainingIds, capacity);
+                userIds = Arrays.copyOf(userIds, capacity);
+                startMillis = Arrays.copyOf(startMillis, capacity);
+                endMillis = Arrays.copyOf(endMillis, capacity);
+                activityTypes = Arrays.copyOf(activityTypes, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+            }
+            if (row < size) {
+                for (Object column : new Object[]{trainingIds, userIds, startMillis, endMillis, activityTypes, distances, averageSpeeds}) {
+                    System.arraycopy(column, row, column, row + 1, size - row);
+                }
+            }
+            size++;
+        }
+    }
+}
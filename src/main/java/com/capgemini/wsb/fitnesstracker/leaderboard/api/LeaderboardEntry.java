@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+/**
+ * Position of a single user on a leaderboard.
+ *
+ * @param rank          1-based position of the user, users with equal distance are ordered by their IDs
+ * @param userId        the ID of the user
+ * @param totalDistance sum of the distances of the user's trainings within the period
+ * @param trainings     number of the user's trainings within the period
+ */
+public record LeaderboardEntry(int rank, Long userId, double totalDistance, long trainings) {
+
+}
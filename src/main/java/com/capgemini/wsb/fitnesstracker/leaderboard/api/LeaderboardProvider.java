@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LeaderboardProvider {
+
+    int DEFAULT_LIMIT = 10;
+    int MAX_LIMIT = 100;
+
+    /**
+     * Gets the users with the longest total distance of the given activity type within a period.
+     * The leaderboards are kept ranked in memory, so the cost depends on the limit, but not on the number of trainings or users.
+     * Periods older than the retained ones are not tracked and have empty leaderboards.
+     *
+     * @param activityType the activity type of the trainings
+     * @param period       the length of the period
+     * @param date         any day of the period (UTC)
+     * @param limit        the maximal number of users returned, at most {@link #MAX_LIMIT}
+     * @return List of the leading users, ordered by rank
+     */
+    List<LeaderboardEntry> getTopUsers(ActivityType activityType, RollupGranularity period, LocalDate date, int limit);
+
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+/**
+ * Interface (API) for maintenance operations on the in-memory leaderboards.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Rebuilds the leaderboards of all retained periods from the trainings stored in the database.
+     */
+    void rebuildLeaderboards();
+
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardProvider;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardService;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * REST controller for the leaderboards of the users by distance.
+ */
+@RestController
+@RequestMapping("/v1/leaderboards")
+@RequiredArgsConstructor
+class LeaderboardController {
+
+    private final LeaderboardProvider leaderboardProvider;
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Retrieves the users with the longest total distance of an activity type within a period.
+     *
+     * @param activityType the activity type of the trainings.
+     * @param period       the length of the period: DAY, WEEK (default) or MONTH.
+     * @param date         any day of the period (ISO-8601 date), the current day (UTC) if not given.
+     * @param limit        the maximal number of users returned, 10 if not given.
+     * @return the leading users ordered by rank.
+     */
+    @GetMapping("/{activityType}")
+    public List<LeaderboardEntry> getLeaderboard(@PathVariable ActivityType activityType,
+                                                 @RequestParam(defaultValue = "WEEK") RollupGranularity period,
+                                                 @RequestParam(required = false) @Nullable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                 @RequestParam(defaultValue = "" + LeaderboardProvider.DEFAULT_LIMIT) int limit) {
+        return leaderboardProvider.getTopUsers(activityType, period, date == null ? LocalDate.now(ZoneOffset.UTC) : date, limit);
+    }
+
+    /**
+     * Rebuilds the leaderboards from the stored trainings.
+     *
+     * @return a ResponseEntity with status 204.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildLeaderboards() {
+        leaderboardService.rebuildLeaderboards();
+        return ResponseEntity.noContent().build();
+    }
+}
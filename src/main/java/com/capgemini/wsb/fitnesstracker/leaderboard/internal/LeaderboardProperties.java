@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the in-memory leaderboards.
+ */
+@ConfigurationProperties(prefix = "leaderboard")
+@Getter
+class LeaderboardProperties {
+
+    /**
+     * Number of past periods kept for each period length, besides the current one. Older leaderboards are dropped.
+     */
+    private final int retainedPeriods;
+
+    LeaderboardProperties(@DefaultValue("12") int retainedPeriods) {
+        this.retainedPeriods = retainedPeriods;
+    }
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardProvider;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardService;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service implementation answering the leaderboards from the in-memory {@link Leaderboards}.
+ * The leaderboards are built from the database once the application is ready, and every committed training write is applied to them afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+class LeaderboardServiceImpl implements LeaderboardProvider, LeaderboardService {
+
+    private final Leaderboards leaderboards;
+    private final TrainingService trainingService;
+
+    @Override
+    public List<LeaderboardEntry> getTopUsers(ActivityType activityType, RollupGranularity period, LocalDate date, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("Leaderboard limit must be between 1 and %d, was %d".formatted(MAX_LIMIT, limit));
+        }
+        return leaderboards.top(activityType, period, date, limit);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildLeaderboards() {
+        leaderboards.rebuild(consumer -> trainingService.exportTrainings(training -> consumer.accept(TrainingSnapshot.of(training))));
+    }
+
+    /**
+     * Applies the saved training once its transaction commits, so the leaderboards never contain rolled back writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        leaderboards.apply(event.previous(), event.current());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingBatchSaved(TrainingBatchSavedEvent event) {
+        event.savedTrainings().forEach(this::onTrainingSaved);
+    }
+}
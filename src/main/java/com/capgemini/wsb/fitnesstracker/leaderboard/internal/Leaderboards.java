@@ -0,0 +1,246 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory leaderboards of the users by total distance, one per activity type and period (day, week or month, in UTC).
+ * <p>
+ * Every leaderboard keeps the standing of each user in a hash map and the same standings ordered by rank in a tree,
+ * so a saved training moves its user in {@code O(log n)} and the top {@code K} users are read in {@code O(log n + K)}.
+ * A training is applied as a difference: its previous state is subtracted and its current state added.
+ * <p>
+ * Only the current period and {@link LeaderboardProperties#getRetainedPeriods() the retained past periods} are tracked.
+ * A new period starts with an empty leaderboard created by its first training, and the leaderboards that fall out of the
+ * retained periods are dropped by the first write of every day, so periods roll over without recomputing anything.
+ * <p>
+ * Reads take the read lock and writes the write lock. A {@link #rebuild(Consumer) rebuild} loads the new leaderboards without
+ * holding the lock, skipping the trainings written in the meantime, and applies those writes before swapping the leaderboards in.
+ */
+@Component
+@Slf4j
+class Leaderboards {
+
+    private static final RollupGranularity[] PERIODS = RollupGranularity.values();
+
+    private final int retainedPeriods;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Map<BoardKey, Board> boards = new HashMap<>();
+    @Nullable
+    private LocalDate evictedOn;
+    @Nullable
+    private volatile Map<Long, RebuildWrite> writesDuringRebuild;
+
+    Leaderboards(LeaderboardProperties properties) {
+        this.retainedPeriods = properties.getRetainedPeriods();
+    }
+
+    /**
+     * Moves the user (or users, if the training was moved to another user) of the saved training on the leaderboards it belongs to.
+     *
+     * @param previous the state of the training before the change, null for a new training
+     * @param current  the state of the training after the change
+     */
+    void apply(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        lock.writeLock().lock();
+        try {
+            if (!today.equals(evictedOn)) {
+                boards.keySet().removeIf(key -> isExpired(key.period(), key.periodStart(), today));
+                evictedOn = today;
+            }
+            if (previous != null) {
+                add(boards, previous, -1, today);
+            }
+            add(boards, current, 1, today);
+
+            Map<Long, RebuildWrite> writes = writesDuringRebuild;
+            if (writes != null) {
+                writes.merge(current.trainingId(),
+                             new RebuildWrite(previous, current),
+                             (first, last) -> new RebuildWrite(first.previous(), last.current()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces all leaderboards with the ones built from the trainings supplied by the given source.
+     * <p>
+     * A training the source supplies after it was written during the rebuild is skipped, and its last state is applied instead.
+     * A training written only after the source supplied it is assumed to have been supplied in its state before the first such write.
+     *
+     * @param source passes every stored training to the consumer it is given
+     */
+    void rebuild(Consumer<Consumer<TrainingSnapshot>> source) {
+        rebuildLock.lock();
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            Map<Long, RebuildWrite> writes = new ConcurrentHashMap<>();
+            writesDuringRebuild = writes;
+            Map<BoardKey, Board> rebuilt = new HashMap<>();
+            Set<Long> skipped = new HashSet<>();
+            try {
+                source.accept(training -> {
+                    if (writes.containsKey(training.trainingId())) {
+                        skipped.add(training.trainingId());
+                    } else {
+                        add(rebuilt, training, 1, today);
+                    }
+                });
+            } catch (RuntimeException e) {
+                writesDuringRebuild = null;
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                writes.forEach((trainingId, write) -> {
+                    if (write.previous() != null && !skipped.contains(trainingId)) {
+                        add(rebuilt, write.previous(), -1, today);
+                    }
+                    add(rebuilt, write.current(), 1, today);
+                });
+                boards = rebuilt;
+                evictedOn = today;
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Leaderboards rebuilt, {} leaderboards of the last {} periods", rebuilt.size(), retainedPeriods + 1);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the leading users of a leaderboard.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param period       the length of the period of the leaderboard
+     * @param date         any day of the period
+     * @param limit        the maximal number of users returned
+     * @return the leading users ordered by rank, empty if the period is not tracked
+     */
+    List<LeaderboardEntry> top(ActivityType activityType, RollupGranularity period, LocalDate date, int limit) {
+        LocalDate periodStart = period.bucketStart(date);
+        if (isExpired(period, periodStart, LocalDate.now(ZoneOffset.UTC))) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Board board = boards.get(new BoardKey(activityType, period, periodStart));
+            return board == null ? List.of() : board.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Map<BoardKey, Board> target, TrainingSnapshot training, int sign, LocalDate today) {
+        LocalDate day = LocalDate.ofInstant(training.startTime(), ZoneOffset.UTC);
+        for (RollupGranularity period : PERIODS) {
+            LocalDate periodStart = period.bucketStart(day);
+            if (!isExpired(period, periodStart, today)) {
+                target.computeIfAbsent(new BoardKey(training.activityType(), period, periodStart), key -> new Board())
+                        .add(training.userId(), sign * training.distance(), sign);
+            }
+        }
+    }
+
+    private boolean isExpired(RollupGranularity period, LocalDate periodStart, LocalDate today) {
+        LocalDate currentStart = period.bucketStart(today);
+        LocalDate oldestRetained = switch (period) {
+            case DAY -> currentStart.minusDays(retainedPeriods);
+            case WEEK -> currentStart.minusWeeks(retainedPeriods);
+            case MONTH -> currentStart.minusMonths(retainedPeriods);
+        };
+        return periodStart.isBefore(oldestRetained);
+    }
+
+    private record BoardKey(ActivityType activityType, RollupGranularity period, LocalDate periodStart) {
+
+    }
+
+    private record RebuildWrite(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    }
+
+    /**
+     * Standings of the users of a single leaderboard. Not thread-safe.
+     */
+    private static final class Board {
+
+        private final Map<Long, Standing> standings = new HashMap<>();
+        private final NavigableSet<Standing> ranking = new TreeSet<>(Standing.RANK_ORDER);
+
+        void add(Long userId, double distance, int trainings) {
+            Standing standing = standings.get(userId);
+            if (standing == null) {
+                standing = new Standing(userId);
+                standings.put(userId, standing);
+            } else {
+                ranking.remove(standing);
+            }
+            standing.distance += distance;
+            standing.trainings += trainings;
+            if (standing.trainings > 0) {
+                ranking.add(standing);
+            } else {
+                standings.remove(userId);
+            }
+        }
+
+        List<LeaderboardEntry> top(int limit) {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<Standing> leading = ranking.iterator();
+            while (entries.size() < limit && leading.hasNext()) {
+                Standing standing = leading.next();
+                entries.add(new LeaderboardEntry(entries.size() + 1, standing.userId, standing.distance, standing.trainings));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Mutable totals of a user. Removed from the ranking before every change, so that the tree order stays consistent.
+     */
+    private static final class Standing {
+
+        static final Comparator<Standing> RANK_ORDER = Comparator.<Standing>comparingDouble(standing -> -standing.distance)
+                .thenComparingLong(standing -> standing.userId);
+
+        private final long userId;
+        private double distance;
+        private long trainings;
+
+        Standing(long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.loader;
 
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
@@ -23,10 +24,12 @@ import static java.util.Objects.isNull;
 
 /**
  * Sample init data loader. If the application is run with `loadInitialData` profile, then on application startup it will fill the database with dummy data,
- * for the manual testing purposes. Loader is triggered by {@link ContextRefreshedEvent } event
+ * for the manual testing purposes. Loader is triggered by {@link ContextRefreshedEvent } event.
+ * The trainings are written directly to the repository, so the statistics and training rollups are rebuilt once they are loaded.
+ * The loader is disabled when the `syntheticData` profile is active as well, so that the synthetic data set is not mixed with the sample data.
  */
 @Component
-@Profile("loadInitialData")
+@Profile("loadInitialData & !syntheticData")
 @Slf4j
 @ToString
 class InitialDataLoader {
@@ -37,6 +40,9 @@ class InitialDataLoader {
     @Autowired
     private JpaRepository<Training, Long> trainingRepository;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
     @EventListener
     @Transactional
     @SuppressWarnings({"squid:S1854", "squid:S1481", "squid:S1192", "unused"})
@@ -47,7 +53,7 @@ class InitialDataLoader {
 
         List<User> sampleUserList = generateSampleUsers();
         List<Training> sampleTrainingList = generateTrainingData(sampleUserList);
-
+        statisticsService.rebuildStatistics();
 
         log.info("Finished loading initial data");
     }
@@ -0,0 +1,328 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic data generator for load and benchmark testing. If the application is run with the `syntheticData` profile,
+ * then on application startup it fills the database with the configured number of users and trainings (see {@link SyntheticDataProperties}).
+ * <p>
+ * Rows are generated in chunks, every chunk in its own transaction on one of a fixed number of workers.
+ * Users are persisted through JPA, clearing the persistence context after every batch.
+ * Trainings, which make up nearly all of the data, bypass JPA and are inserted with plain JDBC batches.
+ * Their IDs are drawn from the {@code trainings_seq} sequence of {@link Training}, one batch of values per query, and every value
+ * is used as a single ID. The Hibernate pooled optimizer takes every value it draws as the upper end of a block of IDs,
+ * which never reaches another drawn value, so the trainings created later by the application do not collide with them.
+ * Each chunk draws from its own random generator seeded with the configured seed and the chunk number,
+ * so the generated data does not depend on the order in which the workers process the chunks.
+ * <p>
+ * The generated trainings follow simple models of real activity:
+ * <ul>
+ *     <li>activity types are weighted (running and walking are much more common than tennis),</li>
+ *     <li>a few users train much more often than the rest,</li>
+ *     <li>trainings start mostly in the morning or in the evening, on any of the configured number of past days,</li>
+ *     <li>durations are log-normally distributed around a typical duration of the activity,</li>
+ *     <li>speeds are normally distributed around a typical speed of the activity, and the distance follows from both.</li>
+ * </ul>
+ * Since the trainings are inserted directly, no training events are published, so the statistics are rebuilt once all the data is in place
+ * (unless disabled).
+ * Achievement progress and the email search index are rebuilt anyway when the application becomes ready.
+ */
+@Component
+@Profile("syntheticData")
+@RequiredArgsConstructor
+@Slf4j
+class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Emma", "Ethan", "Olivia", "Daniel", "Sophia", "Liam", "Ava", "Noah", "Grace", "Oliver",
+            "Mia", "Lucas", "Amelia", "Jack", "Isla", "Leo", "Chloe", "Adam", "Zofia", "Jan"
+    };
+    private static final String[] LAST_NAMES = {
+            "Johnson", "Taylor", "Davis", "Thomas", "Baker", "Jones", "Williams", "Miller", "Anderson", "Swift",
+            "Nowak", "Kowalski", "Wisniewski", "Brown", "Wilson", "Moore", "Clark", "Lewis", "Walker", "Hall"
+    };
+
+    private static final String INSERT_TRAINING = """
+            insert into trainings (id, user_id, start_time, end_time, activity_type, distance, average_speed, version)
+            values (?, ?, ?, ?, ?, ?, ?, 0)""";
+    private static final String NEXT_TRAINING_IDS = "select next value for trainings_seq from system_range(1, ?)";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StatisticsService statisticsService;
+    private final SyntheticDataProperties properties;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void generate() throws InterruptedException {
+        long start = System.nanoTime();
+        log.info("Generating {} synthetic users and {} trainings", properties.getUsers(), properties.getTrainings());
+
+        long[] userIds = generateUsers();
+        if (userIds.length > 0) {
+            generateTrainings(userIds);
+        }
+        if (properties.isRebuildStatistics()) {
+            statisticsService.rebuildStatistics();
+        }
+
+        log.info("Synthetic data generated in {} s", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private long[] generateUsers() throws InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        List<long[]> chunks = inChunks("users", properties.getUsers(), (chunk, from, to) -> {
+            SplittableRandom random = new SplittableRandom(properties.getSeed() ^ chunk);
+            long[] ids = new long[(int) (to - from)];
+            for (long i = from; i < to; i++) {
+                User user = randomUser(random, "%s-%d".formatted(run, i));
+                entityManager.persist(user);
+                ids[(int) (i - from)] = user.getId();
+                flushFullBatch(i - from + 1);
+            }
+            return ids;
+        });
+
+        long[] userIds = new long[properties.getUsers()];
+        int position = 0;
+        for (long[] chunk : chunks) {
+            System.arraycopy(chunk, 0, userIds, position, chunk.length);
+            position += chunk.length;
+        }
+        return userIds;
+    }
+
+    private void generateTrainings(long[] userIds) throws InterruptedException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        inChunks("trainings", properties.getTrainings(), (chunk, from, to) -> {
+            SplittableRandom random = new SplittableRandom(~properties.getSeed() ^ chunk);
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement nextIds = connection.prepareStatement(NEXT_TRAINING_IDS);
+                     PreparedStatement insert = connection.prepareStatement(INSERT_TRAINING)) {
+                    for (long batchFrom = from; batchFrom < to; batchFrom += properties.getBatchSize()) {
+                        nextIds.setLong(1, Math.min(properties.getBatchSize(), to - batchFrom));
+                        try (ResultSet ids = nextIds.executeQuery()) {
+                            while (ids.next()) {
+                                insert.setLong(1, ids.getLong(1));
+                                bindRandomTraining(insert, random, userIds[skewedIndex(random, userIds.length)], today);
+                                insert.addBatch();
+                            }
+                        }
+                        insert.executeBatch();
+                    }
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Generates the given number of rows in chunks of the configured size, processing the chunks in parallel.
+     *
+     * @param rows      name of the generated rows, used for logging
+     * @param total     number of rows to generate
+     * @param generator generates the rows from (inclusive) and to (exclusive) the given indices of the given chunk
+     * @return results of the chunks, in the order of the chunks
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    private <T> List<T> inChunks(String rows, long total, ChunkGenerator<T> generator) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getParallelism(), workerThreadFactory());
+        Progress progress = new Progress(rows, total);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            long chunks = (total + properties.getChunkSize() - 1) / properties.getChunkSize();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * properties.getChunkSize();
+                long to = Math.min(total, from + properties.getChunkSize());
+                long chunkNumber = chunk;
+                futures.add(workers.submit(inTransaction(() -> generator.generate(chunkNumber, from, to), progress, to - from)));
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate synthetic " + rows, e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private <T> Callable<T> inTransaction(Callable<T> chunk, Progress progress, long rows) {
+        return () -> {
+            T result = transactionTemplate.execute(status -> {
+                try {
+                    return chunk.call();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            progress.chunkDone(rows);
+            return result;
+        };
+    }
+
+    /**
+     * Sends the pending inserts to the database once a whole batch is pending, and detaches the inserted entities.
+     *
+     * @param pending number of rows persisted in the current chunk so far
+     */
+    private void flushFullBatch(long pending) {
+        if (pending % properties.getBatchSize() == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private User randomUser(SplittableRandom random, String uniqueSuffix) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int age = (int) clamp(38 + 14 * random.nextGaussian(), 16, 85);
+        LocalDate birthdate = LocalDate.now(ZoneOffset.UTC).minusYears(age).minusDays(random.nextInt(365));
+        String email = "%s.%s.%s@synthetic.test".formatted(firstName, lastName, uniqueSuffix).toLowerCase(Locale.ROOT);
+        return new User(firstName, lastName, birthdate, email);
+    }
+
+    private void bindRandomTraining(PreparedStatement insert, SplittableRandom random, long userId, LocalDate today) throws SQLException {
+        ActivityProfile profile = ActivityProfile.random(random);
+
+        double startHour = random.nextInt(10) < 6 ? 7.5 + 1.5 * random.nextGaussian() : 18 + 1.5 * random.nextGaussian();
+        long startSecond = (long) (clamp(startHour, 5, 22) * 3600);
+        Instant startTime = today.minusDays(random.nextInt(properties.getDays()))
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant()
+                .plusSeconds(startSecond);
+
+        double minutes = clamp(profile.typicalMinutes * Math.exp(0.35 * random.nextGaussian()), 10, 360);
+        double speed = Math.max(profile.typicalSpeed * 0.3, profile.typicalSpeed + profile.speedDeviation * random.nextGaussian());
+        double distance = speed * minutes / 60;
+
+        insert.setLong(2, userId);
+        insert.setTimestamp(3, Timestamp.from(startTime));
+        insert.setTimestamp(4, Timestamp.from(startTime.plusSeconds((long) (minutes * 60))));
+        insert.setInt(5, profile.activityType.ordinal());
+        insert.setDouble(6, round(distance));
+        insert.setDouble(7, round(speed));
+    }
+
+    /**
+     * Picks a random index skewed towards the beginning of the range, so that a few users get most of the trainings.
+     */
+    private static int skewedIndex(SplittableRandom random, int size) {
+        double uniform = random.nextDouble();
+        return (int) (size * uniform * uniform);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, "synthetic-data-" + counter.incrementAndGet());
+    }
+
+    @FunctionalInterface
+    private interface ChunkGenerator<T> {
+
+        T generate(long chunk, long from, long to);
+    }
+
+    /**
+     * Typical shape of the trainings of an activity type, and how often the activity is trained.
+     */
+    private enum ActivityProfile {
+
+        RUNNING(ActivityType.RUNNING, 35, 45, 10.5, 1.8),
+        CYCLING(ActivityType.CYCLING, 25, 75, 22, 4),
+        WALKING(ActivityType.WALKING, 25, 50, 5, 0.7),
+        SWIMMING(ActivityType.SWIMMING, 10, 40, 2.5, 0.5),
+        TENNIS(ActivityType.TENNIS, 5, 60, 4, 1);
+
+        private static final ActivityProfile[] VALUES = values();
+        private static final int TOTAL_WEIGHT = 100;
+
+        private final ActivityType activityType;
+        private final int weight;
+        private final double typicalMinutes;
+        private final double typicalSpeed;
+        private final double speedDeviation;
+
+        ActivityProfile(ActivityType activityType, int weight, double typicalMinutes, double typicalSpeed, double speedDeviation) {
+            this.activityType = activityType;
+            this.weight = weight;
+            this.typicalMinutes = typicalMinutes;
+            this.typicalSpeed = typicalSpeed;
+            this.speedDeviation = speedDeviation;
+        }
+
+        static ActivityProfile random(SplittableRandom random) {
+            int draw = random.nextInt(TOTAL_WEIGHT);
+            for (ActivityProfile profile : VALUES) {
+                draw -= profile.weight;
+                if (draw < 0) {
+                    return profile;
+                }
+            }
+            return VALUES[VALUES.length - 1];
+        }
+    }
+
+    private static final class Progress {
+
+        private final String rows;
+        private final long total;
+        private final long start = System.nanoTime();
+        private final AtomicLong generated = new AtomicLong();
+
+        Progress(String rows, long total) {
+            this.rows = rows;
+            this.total = total;
+        }
+
+        void chunkDone(long rowsOfChunk) {
+            long done = generated.addAndGet(rowsOfChunk);
+            if (done * 10 / total > (done - rowsOfChunk) * 10 / total) {
+                long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                log.info("Synthetic {}: {}/{} generated ({}%, {} rows/s)", rows, done, total, done * 100 / total, done * 1000 / elapsedMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the {@link SyntheticDataGenerator}.
+ */
+@ConfigurationProperties(prefix = "loader.synthetic")
+@Getter
+class SyntheticDataProperties {
+
+    /**
+     * Number of users to generate.
+     */
+    private final int users;
+
+    /**
+     * Number of trainings to generate, spread over the generated users.
+     */
+    private final long trainings;
+
+    /**
+     * Number of days (ending today) over which the trainings are spread.
+     */
+    private final int days;
+
+    /**
+     * Number of rows generated in a single transaction by one worker.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of rows sent to the database in a single JDBC batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Number of chunks generated in parallel.
+     */
+    private final int parallelism;
+
+    /**
+     * Seed of the random generators; the same seed and sizes always produce the same data.
+     */
+    private final long seed;
+
+    /**
+     * Whether to rebuild the statistics and training rollups of all users once the data is generated.
+     * With millions of trainings the rebuild takes longer than the generation itself, so it can be skipped
+     * and triggered later through the statistics API.
+     */
+    private final boolean rebuildStatistics;
+
+    SyntheticDataProperties(@DefaultValue("10000") int users,
+                            @DefaultValue("1000000") long trainings,
+                            @DefaultValue("730") int days,
+                            @DefaultValue("10000") int chunkSize,
+                            @DefaultValue("500") int batchSize,
+                            @DefaultValue("4") int parallelism,
+                            @DefaultValue("42") long seed,
+                            @DefaultValue("true") boolean rebuildStatistics) {
+        this.users = users;
+        this.trainings = trainings;
+        this.days = days;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.seed = seed;
+        this.rebuildStatistics = rebuildStatistics;
+    }
+}
@@ -1,5 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.mail.api;
 
+import java.time.Duration;
+
 /**
  * API interface for component responsible for sending emails.
  */
@@ -12,4 +14,16 @@ public interface EmailSender {
      */
     void send(EmailDto email);
 
+    /**
+     * Sends the email message like {@link #send(EmailDto)}, but if the sender cannot accept the email right away,
+     * then waits up to the given timeout for it to do so. Meant for background jobs producing many emails,
+     * which should slow down instead of having their emails rejected. Request threads should use {@link #send(EmailDto)}.
+     *
+     * @param email   information on email to be sent
+     * @param timeout maximum time to wait for the sender to accept the email
+     * @return true if the email was accepted to be sent, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean offer(EmailDto email, Duration timeout) throws InterruptedException;
+
 }
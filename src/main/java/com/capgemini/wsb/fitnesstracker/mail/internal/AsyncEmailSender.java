@@ -0,0 +1,175 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link EmailSender} queueing the emails in memory and sending them from a pool of worker threads,
+ * so that the calling threads never wait for the SMTP server.
+ * <p>
+ * The queue is bounded, an email submitted while it is full is rejected (logged and counted) instead of blocking the caller.
+ * Each worker takes up to {@link MailProperties#getBatchSize()} queued emails at once and hands them to
+ * {@link JavaMailSender#send(SimpleMailMessage...)}, which sends the whole batch over a single SMTP connection.
+ * <p>
+ * Metrics: {@code mail.queue.size} (gauge), {@code mail.send} (timer from submission until the SMTP server accepted or refused the email,
+ * tagged with the {@code outcome}) and {@code mail.rejected} (counter of emails rejected because the queue was full).
+ */
+@Component
+@Slf4j
+class AsyncEmailSender implements EmailSender {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final JavaMailSender mailSender;
+    private final MailProperties properties;
+    private final BlockingQueue<QueuedEmail> queue;
+    private final ExecutorService workers;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final Counter rejectedCounter;
+    private volatile boolean running = true;
+
+    AsyncEmailSender(JavaMailSender mailSender, MailProperties properties, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), workerThreadFactory());
+        this.sentTimer = Timer.builder("mail.send").tag("outcome", "SUCCESS").register(meterRegistry);
+        this.failedTimer = Timer.builder("mail.send").tag("outcome", "FAILURE").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("mail.rejected").register(meterRegistry);
+        meterRegistry.gauge("mail.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void startWorkers() {
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::sendQueuedEmails);
+        }
+    }
+
+    /**
+     * Stops accepting emails and waits (up to the configured shutdown timeout) for the already queued ones to be sent.
+     */
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Mail workers did not finish in {}, {} emails were not sent", properties.getShutdownTimeout(), queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the email to be sent. Never blocks, if the queue is full, then the email is rejected.
+     *
+     * @param email information on email to be sent
+     */
+    @Override
+    public void send(EmailDto email) {
+        if (!running || !queue.offer(new QueuedEmail(toMessage(email), System.nanoTime()))) {
+            rejectedCounter.increment();
+            log.warn("Email to {} rejected, the mail queue is full or shut down", email.toAddress());
+        }
+    }
+
+    /**
+     * Queues the email to be sent, waiting for space in the queue if it is full.
+     *
+     * @param email   information on email to be sent
+     * @param timeout maximum time to wait for space in the queue
+     * @return true if the email was queued, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public boolean offer(EmailDto email, Duration timeout) throws InterruptedException {
+        if (running && queue.offer(new QueuedEmail(toMessage(email), System.nanoTime()), timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        log.warn("Email to {} rejected, the mail queue stayed full for {} or is shut down", email.toAddress(), timeout);
+        return false;
+    }
+
+    private void sendQueuedEmails() {
+        List<QueuedEmail> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEmail first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<QueuedEmail> batch) {
+        SimpleMailMessage[] messages = batch.stream().map(QueuedEmail::message).toArray(SimpleMailMessage[]::new);
+        try {
+            mailSender.send(messages);
+            batch.forEach(email -> record(sentTimer, email));
+        } catch (MailSendException e) {
+            batch.forEach(email -> record(e.getFailedMessages().containsKey(email.message()) ? failedTimer : sentTimer, email));
+            log.error("Failed to send {} of {} emails", e.getFailedMessages().size(), batch.size(), e);
+        } catch (MailException e) {
+            batch.forEach(email -> record(failedTimer, email));
+            log.error("Failed to send {} emails", batch.size(), e);
+        }
+    }
+
+    private static void record(Timer timer, QueuedEmail email) {
+        timer.record(System.nanoTime() - email.queuedAtNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private SimpleMailMessage toMessage(EmailDto email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.getFrom());
+        message.setTo(email.toAddress());
+        message.setSubject(email.subject());
+        message.setText(email.content());
+        return message;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record QueuedEmail(SimpleMailMessage message, long queuedAtNanos) {
+
+    }
+}
@@ -2,16 +2,17 @@ package com.capgemini.wsb.fitnesstracker.mail.internal;
 
 import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.Duration;
+
 /**
  * Configuration of the {@link EmailSender} (additional to the Spring mail configuration for {@link JavaMailSender} bean autoconfiguration).
  */
 @ConfigurationProperties(prefix = "mail")
 @Getter
-@RequiredArgsConstructor
 class MailProperties {
 
     /**
@@ -19,4 +20,35 @@ class MailProperties {
      */
     private final String from;
 
+    /**
+     * Maximum number of emails waiting to be sent. Emails submitted while the queue is full are rejected.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Number of worker threads sending the queued emails.
+     */
+    private final int workers;
+
+    /**
+     * Maximum number of queued emails sent by a worker over a single SMTP connection.
+     */
+    private final int batchSize;
+
+    /**
+     * Maximum time to wait on shutdown for the already queued emails to be sent.
+     */
+    private final Duration shutdownTimeout;
+
+    MailProperties(String from,
+                   @DefaultValue("10000") int queueCapacity,
+                   @DefaultValue("2") int workers,
+                   @DefaultValue("50") int batchSize,
+                   @DefaultValue("30s") Duration shutdownTimeout) {
+        this.from = from;
+        this.queueCapacity = queueCapacity;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+    }
 }
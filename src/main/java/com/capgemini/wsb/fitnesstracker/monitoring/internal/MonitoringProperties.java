@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the runtime diagnostics published as metrics.
+ */
+@ConfigurationProperties(prefix = "monitoring")
+@Getter
+class MonitoringProperties {
+
+    /**
+     * Minimal time a virtual thread has to stay pinned to its carrier thread to be reported by the {@link VirtualThreadPinningMonitor}.
+     */
+    private final Duration pinnedThreshold;
+
+    MonitoringProperties(@DefaultValue("20ms") Duration pinnedThreshold) {
+        this.pinnedThreshold = pinnedThreshold;
+    }
+}
@@ -0,0 +1,35 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Adds the {@link RepositoryMetricsInterceptor} in front of every Spring Data repository of the application.
+ * <p>
+ * Spring Boot's own {@code spring.data.repository.invocations} timing is disabled in {@code application.yml},
+ * so repository calls are not timed twice.
+ */
+@Configuration
+class RepositoryMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, new RepositoryMetricsInterceptor(
+                                    registry, repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
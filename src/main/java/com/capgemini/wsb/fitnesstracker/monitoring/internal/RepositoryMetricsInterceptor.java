@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Times every invocation of a Spring Data repository as the {@value #METRIC_NAME} metric,
+ * tagged by repository, method, outcome and {@link ResultSize}.
+ * <p>
+ * The interceptor wraps the whole repository call, including the transaction opened by the repository itself.
+ * The timer of every method, outcome and result size is registered on its first use and kept by the interceptor,
+ * so an invocation costs two {@link System#nanoTime()} calls, classifying the result and two lookups of the cached timer,
+ * without building tags or asking the registry again.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "repository.invocations";
+
+    private static final String OUTCOME_SUCCESS = "SUCCESS";
+    private static final String OUTCOME_ERROR = "ERROR";
+    private static final ResultSize[] RESULT_SIZES = ResultSize.values();
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repositoryName;
+    private final Map<Method, MethodTimers> methodTimers = new ConcurrentHashMap<>();
+
+    RepositoryMetricsInterceptor(Supplier<MeterRegistry> meterRegistry, String repositoryName) {
+        this.meterRegistry = meterRegistry;
+        this.repositoryName = repositoryName;
+    }
+
+    @Override
+    @Nullable
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        boolean succeeded = false;
+        try {
+            result = invocation.proceed();
+            succeeded = true;
+            return result;
+        } finally {
+            timersOf(invocation.getMethod())
+                    .timer(succeeded, ResultSize.of(result))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private MethodTimers timersOf(Method method) {
+        MethodTimers timers = methodTimers.get(method);
+        if (timers == null) {
+            timers = methodTimers.computeIfAbsent(method, MethodTimers::new);
+        }
+        return timers;
+    }
+
+    /**
+     * Timers of a single repository method, one per outcome and result size, registered lazily,
+     * so only the combinations that actually occur become time series.
+     * Two threads may register the same timer at once, in which case the registry returns the same instance to both.
+     */
+    private final class MethodTimers {
+
+        private final Tags tags;
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(2 * RESULT_SIZES.length);
+
+        MethodTimers(Method method) {
+            this.tags = Tags.of("repository", repositoryName, "method", method.getName());
+        }
+
+        Timer timer(boolean succeeded, ResultSize resultSize) {
+            int index = (succeeded ? 0 : RESULT_SIZES.length) + resultSize.ordinal();
+            Timer timer = timers.get(index);
+            if (timer == null) {
+                timer = Timer.builder(METRIC_NAME)
+                        .description("Duration of Spring Data repository invocations")
+                        .tags(tags)
+                        .tag("outcome", succeeded ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+                        .tag(ResultSize.TAG, resultSize.tagValue())
+                        .register(meterRegistry.get());
+                timers.set(index, timer);
+            }
+            return timer;
+        }
+    }
+}
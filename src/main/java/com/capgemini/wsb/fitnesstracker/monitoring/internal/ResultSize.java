@@ -0,0 +1,101 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.util.Streamable;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Buckets of the number of elements returned by an endpoint or a repository method, used as the {@value #TAG} metric tag.
+ * <p>
+ * Exact sizes would create a new time series for every distinct size, so they are reduced to a handful of
+ * logarithmic buckets, keeping the cardinality of the tag bounded.
+ */
+enum ResultSize {
+
+    NONE("none"),
+    EMPTY("0"),
+    ONE("1"),
+    UP_TO_10("2-10"),
+    UP_TO_100("11-100"),
+    UP_TO_1000("101-1000"),
+    MORE("1000+"),
+    STREAMED("streamed");
+
+    static final String TAG = "result.size";
+
+    private final String tagValue;
+
+    ResultSize(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    String tagValue() {
+        return tagValue;
+    }
+
+    /**
+     * Classifies the given result by the number of its elements.
+     * Collections, maps, arrays windows, slices and other Spring Data {@link Streamable}s are counted,
+     * an {@link Optional} counts as zero or one element, any other object as a single element.
+     * Streams are lazy and cannot be counted without consuming them.
+     *
+     * @param result value returned by the endpoint or repository method, or null if there is none
+     * @return bucket of the result size
+     */
+    static ResultSize of(@Nullable Object result) {
+        if (result == null) {
+            return NONE;
+        }
+        if (result instanceof Collection<?> collection) {
+            return ofCount(collection.size());
+        }
+        if (result instanceof Map<?, ?> map) {
+            return ofCount(map.size());
+        }
+        if (result instanceof Window<?> window) {
+            return ofCount(window.size());
+        }
+        if (result instanceof Slice<?> slice) {
+            return ofCount(slice.getNumberOfElements());
+        }
+        if (result instanceof Streamable<?> streamable) {
+            return ofCount((int) streamable.stream().count());
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? ONE : EMPTY;
+        }
+        if (result instanceof BaseStream<?, ?>) {
+            return STREAMED;
+        }
+        if (result.getClass().isArray()) {
+            return ofCount(Array.getLength(result));
+        }
+        return ONE;
+    }
+
+    static ResultSize ofCount(int count) {
+        if (count <= 0) {
+            return EMPTY;
+        }
+        if (count == 1) {
+            return ONE;
+        }
+        if (count <= 10) {
+            return UP_TO_10;
+        }
+        if (count <= 100) {
+            return UP_TO_100;
+        }
+        if (count <= 1000) {
+            return UP_TO_1000;
+        }
+        return MORE;
+    }
+}
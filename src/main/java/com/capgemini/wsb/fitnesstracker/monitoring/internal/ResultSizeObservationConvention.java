@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationProperties;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extends the default tags of the {@code http.server.requests} observation (method, URI template, status, outcome, exception)
+ * with the {@value ResultSize#TAG} bucket of the response body recorded by {@link ResultSizeResponseAdvice}.
+ * All the tags have a bounded set of values, so the number of time series per endpoint stays bounded as well.
+ */
+@Component
+class ResultSizeObservationConvention extends DefaultServerRequestObservationConvention {
+
+    ResultSizeObservationConvention(ObservationProperties observationProperties) {
+        super(observationProperties.getHttp().getServer().getRequests().getName());
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object resultSize = context.getCarrier().getAttribute(ResultSizeResponseAdvice.RESULT_SIZE_ATTRIBUTE);
+        ResultSize bucket = resultSize instanceof ResultSize size ? size : ResultSize.NONE;
+        return super.getLowCardinalityKeyValues(context).and(ResultSize.TAG, bucket.tagValue());
+    }
+}
@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import jakarta.annotation.Nullable;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Records the {@link ResultSize} of every response body written by the REST controllers as a request attribute,
+ * from which {@link ResultSizeObservationConvention} tags the {@code http.server.requests} metric.
+ * Responses whose body is not written by a message converter (e.g. streamed exports) are left untagged.
+ */
+@RestControllerAdvice
+class ResultSizeResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String RESULT_SIZE_ATTRIBUTE = ResultSizeResponseAdvice.class.getName() + ".resultSize";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    @Nullable
+    public Object beforeBodyWrite(@Nullable Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(RESULT_SIZE_ATTRIBUTE, ResultSize.of(body));
+        }
+        return body;
+    }
+}
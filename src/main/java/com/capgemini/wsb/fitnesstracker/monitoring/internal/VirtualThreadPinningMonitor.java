@@ -0,0 +1,84 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, which happens when a virtual thread blocks
+ * inside a {@code synchronized} block or a native call, e.g. within JDBC drivers and connection pools.
+ * A pinned virtual thread blocks its carrier, so enough of them can starve all the other virtual threads.
+ * <p>
+ * The {@value #PINNED_EVENT} JFR events longer than {@link MonitoringProperties#getPinnedThreshold()} are streamed in-process
+ * and recorded by the {@value #METRIC_NAME} timer. The stack trace of every distinct pinning site is logged once.
+ * <p>
+ * Only active when the application runs on virtual threads ({@code spring.threads.virtual.enabled} on Java 21 or newer).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String METRIC_NAME = "jvm.threads.virtual.pinned";
+
+    private static final int MAX_LOGGED_SITES = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MonitoringProperties properties;
+    private final Timer pinned;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private final RecordingStream recording = new RecordingStream();
+
+    VirtualThreadPinningMonitor(MonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Timer.builder(METRIC_NAME)
+                .description("Time virtual threads stayed pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        recording.enable(PINNED_EVENT).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {}", properties.getPinnedThreshold());
+    }
+
+    @PreDestroy
+    void stop() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || loggedSites.size() >= MAX_LOGGED_SITES) {
+            return;
+        }
+        String site = stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        if (loggedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return "%s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+    }
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReportProperties.class)
+class NotificationConfig {
+
+}
@@ -0,0 +1,38 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the weekly training reports generated by the {@link TrainingReportGenerator}.
+ */
+@ConfigurationProperties(prefix = "report")
+@Getter
+class ReportProperties {
+
+    /**
+     * Number of users (with consecutive IDs) processed together, reading their trainings with a single query.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of chunks processed in parallel.
+     */
+    private final int parallelism;
+
+    /**
+     * Maximum time to wait for the email sender to accept a report, before giving up on it.
+     */
+    private final Duration emailTimeout;
+
+    ReportProperties(@DefaultValue("1000") int chunkSize,
+                     @DefaultValue("4") int parallelism,
+                     @DefaultValue("1m") Duration emailTimeout) {
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.emailTimeout = emailTimeout;
+    }
+}
@@ -0,0 +1,169 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.UserStatistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the weekly training reports of all users and sends them by email.
+ * <p>
+ * Users are read in chunks of consecutive IDs (keyset pagination), and every chunk is processed by one of a fixed number of workers,
+ * reading the trainings and statistics of all users of the chunk with a single range query each.
+ * At most twice as many chunks as there are workers are held in memory at once, so the memory used does not grow with the number of users.
+ * Progress is logged every 10% of the users.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrainingReportGenerator {
+
+    private final UserProvider userProvider;
+    private final UserService userService;
+    private final TrainingService trainingService;
+    private final StatisticsProvider statisticsProvider;
+    private final EmailSender emailSender;
+    private final ReportProperties properties;
+
+    /**
+     * Sends the reports of the previous week (Monday to Sunday, UTC) every Monday morning.
+     */
+    @Scheduled(cron = "${report.cron:0 0 6 * * MON}", zone = "UTC")
+    public void generateWeeklyReports() throws InterruptedException {
+        LocalDate currentWeekStart = LocalDate.now(ZoneOffset.UTC).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        generateReports(currentWeekStart.minusWeeks(1));
+    }
+
+    /**
+     * Generates and sends the reports of all users for the week starting on the given day.
+     *
+     * @param weekStart the first day of the reported week
+     * @return the number of reports accepted by the email sender
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public long generateReports(LocalDate weekStart) throws InterruptedException {
+        Progress progress = new Progress(weekStart, userProvider.countUsers());
+        log.info("Generating weekly training reports of {} users for the week of {}", progress.totalUsers, weekStart);
+
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getParallelism(), workerThreadFactory());
+        Semaphore chunksInMemory = new Semaphore(properties.getParallelism() * 2);
+        try {
+            List<User> chunk = userService.getUsersPage(null, properties.getChunkSize());
+            while (!chunk.isEmpty()) {
+                chunksInMemory.acquire();
+                List<User> users = chunk;
+                workers.execute(() -> {
+                    try {
+                        processChunk(users, weekStart, progress);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        log.error("Failed to generate the weekly reports of users {} to {}", firstId(users), lastId(users), e);
+                    } finally {
+                        chunksInMemory.release();
+                    }
+                });
+                chunk = userService.getUsersPage(lastId(users), properties.getChunkSize());
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.HOURS)) {
+                workers.shutdownNow();
+            }
+        }
+
+        log.info("Weekly training reports for the week of {} done: {} users, {} reports sent, {} rejected",
+                 weekStart, progress.processedUsers.get(), progress.sentReports.get(), progress.rejectedReports.get());
+        return progress.sentReports.get();
+    }
+
+    private void processChunk(List<User> users, LocalDate weekStart, Progress progress) throws InterruptedException {
+        Map<Long, List<TrainingDTO>> trainingsByUser = trainingService.getTrainingDtosOfUsersEndedBetween(
+                        firstId(users),
+                        lastId(users),
+                        Date.from(weekStart.atStartOfDay(ZoneOffset.UTC).toInstant()),
+                        Date.from(weekStart.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant()))
+                .stream()
+                .collect(Collectors.groupingBy(TrainingDTO::getUserId));
+        Map<Long, Integer> totalTrainingsByUser = statisticsProvider.getUserStatisticsBetween(firstId(users), lastId(users))
+                .stream()
+                .collect(Collectors.toMap(UserStatistics::userId, UserStatistics::totalTrainings));
+
+        int sent = 0;
+        for (User user : users) {
+            WeeklyTrainingReport report = new WeeklyTrainingReport(user,
+                                                                   weekStart,
+                                                                   trainingsByUser.getOrDefault(user.getId(), List.of()),
+                                                                   totalTrainingsByUser.getOrDefault(user.getId(), 0));
+            if (emailSender.offer(report.toEmail(), properties.getEmailTimeout())) {
+                sent++;
+            }
+        }
+        progress.chunkDone(users.size(), sent);
+    }
+
+    private static Long firstId(List<User> users) {
+        return users.get(0).getId();
+    }
+
+    private static Long lastId(List<User> users) {
+        return users.get(users.size() - 1).getId();
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, "weekly-report-" + counter.incrementAndGet());
+    }
+
+    private static final class Progress {
+
+        private final LocalDate weekStart;
+        private final long totalUsers;
+        private final AtomicLong processedUsers = new AtomicLong();
+        private final AtomicLong sentReports = new AtomicLong();
+        private final AtomicLong rejectedReports = new AtomicLong();
+
+        Progress(LocalDate weekStart, long totalUsers) {
+            this.weekStart = weekStart;
+            this.totalUsers = totalUsers;
+        }
+
+        void chunkDone(int users, int sent) {
+            sentReports.addAndGet(sent);
+            rejectedReports.addAndGet(users - sent);
+            long processed = processedUsers.addAndGet(users);
+            if (totalUsers > 0 && tenths(processed) > tenths(processed - users)) {
+                log.info("Weekly training reports for the week of {}: {}/{} users processed ({}%)",
+                         weekStart, processed, totalUsers, Math.min(100, processed * 100 / totalUsers));
+            }
+        }
+
+        private long tenths(long processed) {
+            return processed * 10 / totalUsers;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Weekly summary of the trainings of a single user, rendered as an email.
+ *
+ * @param user           the user the report is for
+ * @param weekStart      the Monday of the reported week
+ * @param trainings      the trainings of the user that ended within the reported week
+ * @param totalTrainings the number of all trainings registered by the user
+ */
+record WeeklyTrainingReport(User user, LocalDate weekStart, List<TrainingDTO> trainings, int totalTrainings) {
+
+    EmailDto toEmail() {
+        return new EmailDto(user.getEmail(), "Your training summary for the week of " + weekStart, renderContent());
+    }
+
+    private String renderContent() {
+        StringBuilder content = new StringBuilder()
+                .append("Hi ").append(user.getFirstName()).append(",\n\n")
+                .append("In the week from ").append(weekStart).append(" to ").append(weekStart.plusDays(6))
+                .append(" you completed ").append(trainings.size()).append(" trainings.\n");
+        summarizeByActivity().forEach((activityType, summary) -> content.append(String.format(Locale.ROOT,
+                "- %s: %d trainings, %.1f km, %d min\n",
+                activityType, summary.trainings, summary.distance, summary.duration.toMinutes())));
+        return content.append("\nIn total you have ").append(totalTrainings).append(" trainings registered.\n").toString();
+    }
+
+    private Map<ActivityType, ActivitySummary> summarizeByActivity() {
+        Map<ActivityType, ActivitySummary> summaries = new EnumMap<>(ActivityType.class);
+        for (TrainingDTO training : trainings) {
+            ActivitySummary summary = summaries.computeIfAbsent(training.getActivityType(), activityType -> new ActivitySummary());
+            summary.trainings++;
+            summary.distance += training.getDistance();
+            summary.duration = summary.duration.plusMillis(training.getEndTime().getTime() - training.getStartTime().getTime());
+        }
+        return summaries;
+    }
+
+    private static final class ActivitySummary {
+
+        private int trainings;
+        private double distance;
+        private Duration duration = Duration.ZERO;
+    }
+}
@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import jakarta.annotation.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Helpers for keyset (cursor based) pagination of the collection endpoints.
+ * <p>
+ * A page is read by asking the repository for one element more than the requested page size.
+ * If that extra element exists, the cursor of the last returned element is sent back in a {@code Link: <...>; rel="next"} header.
+ * Cursors are opaque to the clients: they are the keyset values of the last element, encoded with URL-safe Base64.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final String CURSOR_PARAM = "cursor";
+    public static final String SIZE_PARAM = "size";
+
+    private static final String KEY_SEPARATOR = ":";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Resolves the page size requested by the client, applying the default and capping it at {@link #MAX_PAGE_SIZE}.
+     *
+     * @param requestedSize page size requested by the client, or null if not specified
+     * @return page size to be used
+     */
+    public static int pageSize(@Nullable Integer requestedSize) {
+        if (requestedSize == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requestedSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Encodes the keyset values of an element into an opaque cursor.
+     *
+     * @param keys keyset values of the element
+     * @return opaque cursor
+     */
+    public static String encodeCursor(long... keys) {
+        String joined = LongStream.of(keys).mapToObj(Long::toString).collect(Collectors.joining(KEY_SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes the opaque cursor back into keyset values.
+     *
+     * @param cursor       cursor sent by the client
+     * @param expectedKeys number of keyset values the cursor should contain
+     * @return keyset values encoded in the cursor
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encodeCursor(long...)} with the expected number of keys
+     */
+    public static long[] decodeCursor(String cursor, int expectedKeys) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            long[] keys = Arrays.stream(joined.split(KEY_SEPARATOR)).mapToLong(Long::parseLong).toArray();
+            if (keys.length != expectedKeys) {
+                throw new InvalidCursorException(cursor);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Builds the response for a page read with one extra element, adding the {@code Link} header to the next page if there is one.
+     *
+     * @param fetched  elements read from the repository, at most {@code pageSize + 1}
+     * @param pageSize page size requested by the client
+     * @param cursorOf function producing the cursor of an element
+     * @param mapper   function mapping an element to the response representation
+     * @param <E>      type of the elements read from the repository
+     * @param <D>      type of the elements in the response
+     * @return response containing at most {@code pageSize} elements
+     */
+    public static <E, D> ResponseEntity<List<D>> toResponse(List<E> fetched,
+                                                            int pageSize,
+                                                            Function<E, String> cursorOf,
+                                                            Function<E, D> mapper) {
+        List<E> page = fetched.size() > pageSize ? fetched.subList(0, pageSize) : fetched;
+        List<D> body = page.stream().map(mapper).toList();
+        if (fetched.size() <= pageSize) {
+            return ResponseEntity.ok(body);
+        }
+        String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(CURSOR_PARAM, cursorOf.apply(page.get(page.size() - 1)))
+                .replaceQueryParam(SIZE_PARAM, pageSize)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<%s>; rel=\"next\"".formatted(nextLink))
+                .body(body);
+    }
+}
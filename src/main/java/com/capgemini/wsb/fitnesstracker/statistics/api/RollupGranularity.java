@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Size of the time buckets the trainings are rolled up into.
+ */
+public enum RollupGranularity {
+
+    /**
+     * One bucket per calendar day.
+     */
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+    },
+
+    /**
+     * One bucket per ISO week, starting on Monday.
+     */
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    },
+
+    /**
+     * One bucket per calendar month.
+     */
+    MONTH {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+    };
+
+    /**
+     * Gets the first day of the bucket containing the given date.
+     *
+     * @param date the date to find the bucket for.
+     * @return the first day of the bucket.
+     */
+    public abstract LocalDate bucketStart(LocalDate date);
+}
@@ -4,8 +4,11 @@ import com.capgemini.wsb.fitnesstracker.user.api.User;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Entity holding the aggregated training statistics of a single {@link User}.
+ */
 @Entity
-@Table(name = "statistics")
+@Table(name = "statistics", uniqueConstraints = @UniqueConstraint(name = "uk_statistics_user", columnNames = "user_id"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -29,4 +32,21 @@ public class Statistics {
     @Column(name = "total_calories_burned")
     private int totalCaloriesBurned;
 
+    public Statistics(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Adds the given (possibly negative) deltas to the totals.
+     *
+     * @param trainings      change of the number of trainings
+     * @param distance       change of the total distance
+     * @param caloriesBurned change of the total calories burned
+     */
+    public void add(int trainings, double distance, int caloriesBurned) {
+        this.totalTrainings += trainings;
+        this.totalDistance += distance;
+        this.totalCaloriesBurned += caloriesBurned;
+    }
+
 }
\ No newline at end of file
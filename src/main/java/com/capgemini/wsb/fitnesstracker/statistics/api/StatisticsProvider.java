@@ -1,5 +1,10 @@
 package com.capgemini.wsb.fitnesstracker.statistics.api;
 
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface StatisticsProvider {
@@ -13,4 +18,39 @@ public interface StatisticsProvider {
      */
     Optional<Statistics> getStatistics(Long statisticsId);
 
+    /**
+     * Retrieves the statistics of the given user.
+     * If the user has no trainings yet, then {@link Optional#empty()} will be returned.
+     *
+     * @param userId id of the user whose statistics are to be retrieved
+     * @return An {@link Optional} containing the statistics of the user, or {@link Optional#empty()} if there are none
+     */
+    Optional<UserStatistics> getUserStatistics(Long userId);
+
+    /**
+     * Retrieves the statistics of all users within the given user ID range that have any trainings.
+     *
+     * @param fromUserId the lowest user ID (inclusive)
+     * @param toUserId   the highest user ID (inclusive)
+     * @return List of the statistics of the users in the range
+     */
+    List<UserStatistics> getUserStatisticsBetween(Long fromUserId, Long toUserId);
+
+    /**
+     * Retrieves the rolled up totals of the trainings of the given user, per activity type and time bucket.
+     * Only the stored buckets are read, so the cost depends on the number of buckets in the range, not on the number of trainings.
+     *
+     * @param userId       id of the user whose trainings are rolled up
+     * @param granularity  size of the time buckets
+     * @param from         first day of the range (inclusive), the bucket containing it is included as a whole
+     * @param to           last day of the range (exclusive)
+     * @param activityType activity type to limit the result to, or null for all activity types
+     * @return List of non-empty buckets in the range, ordered by bucket start and activity type
+     */
+    List<TrainingRollupDto> getTrainingRollups(Long userId,
+                                               RollupGranularity granularity,
+                                               LocalDate from,
+                                               LocalDate to,
+                                               @Nullable ActivityType activityType);
+
 }
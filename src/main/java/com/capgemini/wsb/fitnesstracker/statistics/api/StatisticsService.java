@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+/**
+ * Interface (API) for modifying operations on {@link Statistics} entities through the API.
+ * Implementing classes are responsible for executing changes within a database transaction, whether by continuing an existing transaction or creating a new one if required.
+ */
+public interface StatisticsService {
+
+    /**
+     * Recomputes the statistics and training rollups of all users from scratch, based on all stored trainings.
+     * The result is the same as the one maintained incrementally on every training write.
+     */
+    void rebuildStatistics();
+
+}
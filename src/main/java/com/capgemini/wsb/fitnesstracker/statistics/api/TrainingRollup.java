@@ -0,0 +1,71 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Entity holding the totals of the trainings of a single {@link User} and {@link ActivityType}
+ * that started within one time bucket of the given {@link RollupGranularity}.
+ */
+@Entity
+@Table(name = "training_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_training_rollups_bucket",
+                                             columnNames = {"user_id", "granularity", "bucket_start", "activity_type"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TrainingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "total_trainings", nullable = false)
+    private int totalTrainings;
+
+    @Column(name = "total_distance", nullable = false)
+    private double totalDistance;
+
+    @Column(name = "total_duration_seconds", nullable = false)
+    private long totalDurationSeconds;
+
+    public TrainingRollup(User user, ActivityType activityType, RollupGranularity granularity, LocalDate bucketStart) {
+        this.user = user;
+        this.activityType = activityType;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Adds the given (possibly negative) deltas to the totals of the bucket.
+     *
+     * @param trainings       change of the number of trainings
+     * @param distance        change of the total distance
+     * @param durationSeconds change of the total duration, in seconds
+     */
+    public void add(int trainings, double distance, long durationSeconds) {
+        this.totalTrainings += trainings;
+        this.totalDistance += distance;
+        this.totalDurationSeconds += durationSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of the trainings of one activity type within one time bucket.
+ */
+public record TrainingRollupDto(ActivityType activityType,
+                                @JsonFormat(pattern = "yyyy-MM-dd") LocalDate bucketStart,
+                                int totalTrainings,
+                                double totalDistance,
+                                long totalDurationSeconds) {
+
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+/**
+ * Immutable view of the {@link Statistics} of a single user.
+ */
+public record UserStatistics(Long userId, int totalTrainings, double totalDistance, int totalCaloriesBurned) {
+
+    public static UserStatistics of(Statistics statistics) {
+        return new UserStatistics(statistics.getUser().getId(),
+                                  statistics.getTotalTrainings(),
+                                  statistics.getTotalDistance(),
+                                  statistics.getTotalCaloriesBurned());
+    }
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimates calories burned during a training with the MET (metabolic equivalent of task) method,
+ * for a person of the reference body weight.
+ */
+final class CaloriesEstimator {
+
+    private static final double REFERENCE_WEIGHT_KG = 70.0;
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private static final Map<ActivityType, Double> MET_BY_ACTIVITY = new EnumMap<>(Map.of(
+            ActivityType.RUNNING, 9.8,
+            ActivityType.CYCLING, 7.5,
+            ActivityType.WALKING, 3.5,
+            ActivityType.SWIMMING, 6.0,
+            ActivityType.TENNIS, 7.3
+    ));
+
+    private CaloriesEstimator() {
+    }
+
+    /**
+     * Estimates calories burned during the given training, rounded to whole kilocalories.
+     * The rounding is done per training, so that totals maintained incrementally and rebuilt from scratch are equal.
+     *
+     * @param training the training to estimate.
+     * @return the estimated calories, never negative.
+     */
+    static int caloriesBurned(TrainingSnapshot training) {
+        double hours = Math.max(0, training.duration().toSeconds()) / SECONDS_PER_HOUR;
+        return (int) Math.round(MET_BY_ACTIVITY.get(training.activityType()) * REFERENCE_WEIGHT_KG * hours);
+    }
+}
@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+/**
+ * Identifies a single training rollup bucket. Trainings are bucketed by their start time, in UTC.
+ */
+record RollupKey(Long userId, RollupGranularity granularity, LocalDate bucketStart, ActivityType activityType) {
+
+    /**
+     * Order matching the unique index of the rollups table, so that rows are always locked in the same order.
+     */
+    static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::userId)
+            .thenComparing(RollupKey::granularity)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::activityType);
+
+    static RollupKey of(TrainingSnapshot training, RollupGranularity granularity) {
+        LocalDate day = LocalDate.ofInstant(training.startTime(), ZoneOffset.UTC);
+        return new RollupKey(training.userId(), granularity, granularity.bucketStart(day), training.activityType());
+    }
+}
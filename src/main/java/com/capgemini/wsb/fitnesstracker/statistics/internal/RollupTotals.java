@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+import java.util.Map;
+
+/**
+ * Mutable totals (or deltas) of a training rollup bucket, accumulated in memory before being written.
+ */
+final class RollupTotals {
+
+    int trainings;
+    double distance;
+    long durationSeconds;
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) the training to the bucket of every granularity it belongs to.
+     *
+     * @param totalsByKey totals to accumulate into
+     * @param training    the training
+     * @param sign        1 to add the training, -1 to subtract it
+     */
+    static void accumulate(Map<RollupKey, RollupTotals> totalsByKey, TrainingSnapshot training, int sign) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            RollupTotals totals = totalsByKey.computeIfAbsent(RollupKey.of(training, granularity), key -> new RollupTotals());
+            totals.trainings += sign;
+            totals.distance += sign * training.distance();
+            totals.durationSeconds += sign * training.duration().toSeconds();
+        }
+    }
+
+    boolean isZero() {
+        return trainings == 0 && distance == 0 && durationSeconds == 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.UserStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the {@link UserStatistics} of single users, including the users without statistics.
+ * <p>
+ * Hits are served without locking. A miss is loaded under the lock of the user's stripe, re-checking the cache first,
+ * so concurrent misses for the same user collapse into a single load.
+ * Invalidations take the same lock, so a load that read the previous state can never be cached after the invalidation.
+ * Within a transaction the entry is invalidated both immediately and after the commit, since a load in between still reads the previous state.
+ * <p>
+ * Metrics are published as the {@value #CACHE_NAME} cache ({@code cache.gets}, {@code cache.evictions}, ...).
+ */
+@Component
+class StatisticsCache {
+
+    static final String CACHE_NAME = "userStatistics";
+
+    private static final int STRIPES = 64;
+    private static final int MAXIMUM_SIZE = 10_000;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final Cache<Long, Optional<UserStatistics>> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    StatisticsCache(MeterRegistry meterRegistry) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Gets the statistics of the user from the cache, loading them if absent.
+     *
+     * @param userId the ID of the user
+     * @param loader loads the statistics of the user from the database
+     * @return the statistics of the user, or empty if the user has none
+     */
+    Optional<UserStatistics> get(Long userId, Function<Long, Optional<UserStatistics>> loader) {
+        Optional<UserStatistics> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        ReentrantLock lock = stripeOf(userId);
+        lock.lock();
+        try {
+            return cache.get(userId, loader);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the cached statistics of the user, immediately and, within a transaction, once more after it completes.
+     *
+     * @param userId the ID of the user
+     */
+    void invalidate(Long userId) {
+        invalidateNow(userId);
+        afterTransaction(() -> invalidateNow(userId));
+    }
+
+    /**
+     * Invalidates the cached statistics of all users, immediately and, within a transaction, once more after it completes.
+     */
+    void invalidateAll() {
+        cache.invalidateAll();
+        afterTransaction(cache::invalidateAll);
+    }
+
+    private void invalidateNow(Long userId) {
+        ReentrantLock lock = stripeOf(userId);
+        lock.lock();
+        try {
+            cache.invalidate(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void afterTransaction(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private ReentrantLock stripeOf(Long userId) {
+        return stripes[(int) Math.floorMod(userId, (long) STRIPES)];
+    }
+}
@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupDto;
+import com.capgemini.wsb.fitnesstracker.statistics.api.UserStatistics;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller for reading training statistics.
+ */
+@RestController
+@RequestMapping("/v1/statistics")
+@RequiredArgsConstructor
+class StatisticsController {
+
+    private final StatisticsProvider statisticsProvider;
+    private final StatisticsService statisticsService;
+
+    /**
+     * Retrieves the statistics of a user.
+     *
+     * @param userId the ID of the user.
+     * @return a ResponseEntity containing the statistics of the user, or 404 if the user has no statistics.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<UserStatistics> getUserStatistics(@PathVariable Long userId) {
+        return ResponseEntity.of(statisticsProvider.getUserStatistics(userId));
+    }
+
+    /**
+     * Retrieves the rolled up totals of the trainings of a user, per activity type and time bucket.
+     *
+     * @param userId       the ID of the user.
+     * @param granularity  the size of the time buckets.
+     * @param from         the first day of the range (inclusive, yyyy-MM-dd).
+     * @param to           the last day of the range (exclusive, yyyy-MM-dd).
+     * @param activityType the activity type to limit the result to, all activity types if not given.
+     * @return the non-empty buckets in the range.
+     */
+    @GetMapping("/user/{userId}/rollups")
+    public List<TrainingRollupDto> getTrainingRollups(@PathVariable Long userId,
+                                                      @RequestParam RollupGranularity granularity,
+                                                      @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                      @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+                                                      @RequestParam(required = false) @Nullable ActivityType activityType) {
+        return statisticsProvider.getTrainingRollups(userId, granularity, from, to, activityType);
+    }
+
+    /**
+     * Recomputes the statistics and training rollups of all users from the stored trainings.
+     *
+     * @return a ResponseEntity with status 204.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildStatistics() {
+        statisticsService.rebuildStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
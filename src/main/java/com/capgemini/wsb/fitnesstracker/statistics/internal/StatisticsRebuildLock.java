@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a rebuild of the statistics and training rollups apart from the deltas applied to them.
+ * <p>
+ * The transactions applying deltas share the lock, while a rebuild holds it exclusively, each from the moment it is taken
+ * until the transaction completes. A rebuild therefore waits for the deltas in progress to be committed, so that it reads
+ * their trainings, and the deltas arriving meanwhile wait for the rebuilt rows to be committed before they are applied on top.
+ * The lock is held in memory, so it only covers the writes of this application instance.
+ */
+@Component
+class StatisticsRebuildLock {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Takes the shared lock until the current transaction completes.
+     * The lock is reentrant, so a transaction applying several deltas takes it once per delta.
+     */
+    void lockForDeltas() {
+        holdUntilCompletion(lock.readLock());
+    }
+
+    /**
+     * Takes the exclusive lock until the current transaction completes.
+     * The shared lock cannot be upgraded, so if the transaction applied deltas already, its shared holds are given up
+     * while the exclusive lock is awaited and taken again once it is held. The rebuild reads the trainings of its own transaction anyway.
+     */
+    void lockForRebuild() {
+        int sharedHolds = lock.getReadHoldCount();
+        for (int i = 0; i < sharedHolds; i++) {
+            lock.readLock().unlock();
+        }
+        holdUntilCompletion(lock.writeLock());
+        for (int i = 0; i < sharedHolds; i++) {
+            lock.readLock().lock();
+        }
+    }
+
+    private static void holdUntilCompletion(Lock lock) {
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
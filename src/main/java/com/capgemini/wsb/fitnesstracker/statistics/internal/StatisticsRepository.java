@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for managing Statistics entities.
+ */
+interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /**
+     * Finds the statistics of the given user.
+     *
+     * @param userId the ID of the user.
+     * @return the statistics of the user, if there are any.
+     */
+    Optional<Statistics> findByUserId(Long userId);
+
+    /**
+     * Finds the statistics of all users within the given user ID range.
+     *
+     * @param fromUserId the lowest user ID (inclusive).
+     * @param toUserId the highest user ID (inclusive).
+     * @return the statistics of the users in the range.
+     */
+    List<Statistics> findByUserIdBetween(Long fromUserId, Long toUserId);
+
+    /**
+     * Finds the statistics of the given user, locking the row until the end of the transaction,
+     * so that concurrent deltas for the same user are applied one after another.
+     *
+     * @param userId the ID of the user.
+     * @return the locked statistics of the user, if there are any.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Statistics> findForUpdateByUserId(Long userId);
+
+    /**
+     * Removes the statistics of all users with a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Statistics")
+    void deleteAllInBulk();
+}
@@ -0,0 +1,153 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupDto;
+import com.capgemini.wsb.fitnesstracker.statistics.api.UserStatistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service implementation for reading and rebuilding the statistics of users.
+ * The statistics and the training rollups are kept up to date incrementally by the {@link StatisticsUpdater}
+ * and the {@link TrainingRollupUpdater}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class StatisticsServiceImpl implements StatisticsProvider, StatisticsService {
+
+    private final StatisticsRepository statisticsRepository;
+    private final StatisticsCache statisticsCache;
+    private final TrainingRollupRepository trainingRollupRepository;
+    private final StatisticsRebuildLock rebuildLock;
+    private final TrainingService trainingService;
+    private final EntityManager entityManager;
+
+    /**
+     * Retrieves the statistics by their ID.
+     *
+     * @param statisticsId the ID of the statistics to retrieve.
+     * @return an Optional containing the statistics, or empty if not found.
+     */
+    @Override
+    public Optional<Statistics> getStatistics(Long statisticsId) {
+        return statisticsRepository.findById(statisticsId);
+    }
+
+    /**
+     * Retrieves the statistics of the given user, through the {@link StatisticsCache}.
+     *
+     * @param userId the ID of the user.
+     * @return an Optional containing the statistics of the user, or empty if the user has no trainings.
+     */
+    @Override
+    public Optional<UserStatistics> getUserStatistics(Long userId) {
+        return statisticsCache.get(userId, id -> statisticsRepository.findByUserId(id).map(UserStatistics::of));
+    }
+
+    /**
+     * Retrieves the statistics of all users within the given user ID range.
+     *
+     * @param fromUserId the lowest user ID (inclusive).
+     * @param toUserId the highest user ID (inclusive).
+     * @return the statistics of the users in the range that have any trainings.
+     */
+    @Override
+    public List<UserStatistics> getUserStatisticsBetween(Long fromUserId, Long toUserId) {
+        return statisticsRepository.findByUserIdBetween(fromUserId, toUserId).stream().map(UserStatistics::of).toList();
+    }
+
+    /**
+     * Retrieves the rollup buckets of the given user within the given range.
+     * The range start is aligned to the start of its bucket, so the bucket containing it is returned as a whole.
+     *
+     * @param userId       the ID of the user.
+     * @param granularity  the granularity of the buckets.
+     * @param from         the first day of the range (inclusive).
+     * @param to           the last day of the range (exclusive).
+     * @param activityType the activity type to limit the result to, or null for all activity types.
+     * @return the non-empty buckets in the range, ordered by bucket start and activity type.
+     */
+    @Override
+    public List<TrainingRollupDto> getTrainingRollups(Long userId,
+                                                      RollupGranularity granularity,
+                                                      LocalDate from,
+                                                      LocalDate to,
+                                                      @Nullable ActivityType activityType) {
+        if (!from.isBefore(to)) {
+            throw new BusinessException("Range start %s must be before range end %s".formatted(from, to));
+        }
+        return trainingRollupRepository.findRange(userId, granularity, granularity.bucketStart(from), to, activityType);
+    }
+
+    /**
+     * Recomputes the statistics and training rollups of all users in a single pass over all trainings,
+     * then replaces the stored ones.
+     * The rebuild holds the {@link StatisticsRebuildLock} exclusively, so the deltas of trainings saved meanwhile
+     * are applied on top of the rebuilt statistics once they are committed, instead of being overwritten by them.
+     * Calories are estimated per training exactly as in the {@link StatisticsUpdater}.
+     */
+    @Override
+    @Transactional
+    public void rebuildStatistics() {
+        rebuildLock.lockForRebuild();
+        Map<Long, Totals> totalsByUser = new HashMap<>();
+        Map<RollupKey, RollupTotals> rollups = new HashMap<>();
+        trainingService.exportTrainings(training -> {
+            TrainingSnapshot snapshot = TrainingSnapshot.of(training);
+            totalsByUser.computeIfAbsent(snapshot.userId(), userId -> new Totals()).add(snapshot);
+            RollupTotals.accumulate(rollups, snapshot, 1);
+        });
+
+        statisticsRepository.deleteAllInBulk();
+        statisticsCache.invalidateAll();
+        totalsByUser.forEach((userId, totals) -> {
+            Statistics statistics = new Statistics(entityManager.getReference(User.class, userId));
+            statistics.add(totals.trainings, totals.distance, totals.caloriesBurned);
+            statisticsRepository.save(statistics);
+        });
+
+        trainingRollupRepository.deleteAllInBulk();
+        rollups.forEach((key, totals) -> {
+            TrainingRollup rollup = new TrainingRollup(entityManager.getReference(User.class, key.userId()),
+                                                       key.activityType(),
+                                                       key.granularity(),
+                                                       key.bucketStart());
+            rollup.add(totals.trainings, totals.distance, totals.durationSeconds);
+            trainingRollupRepository.save(rollup);
+        });
+        log.info("Rebuilt statistics of {} users and {} training rollups", totalsByUser.size(), rollups.size());
+    }
+
+    private static final class Totals {
+
+        private int trainings;
+        private double distance;
+        private int caloriesBurned;
+
+        void add(TrainingSnapshot training) {
+            trainings++;
+            distance += training.distance();
+            caloriesBurned += CaloriesEstimator.caloriesBurned(training);
+        }
+    }
+}
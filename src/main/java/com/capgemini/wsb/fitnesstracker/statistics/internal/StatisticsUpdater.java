@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the {@link Statistics} of users up to date, by applying the difference between the previous and the current state
+ * of every saved training, instead of recomputing the totals from all trainings of the user.
+ * The deltas are applied within the transaction that saved the training, invalidating the cached statistics of the user.
+ * The deltas of a batch of trainings are summed up per user first, so the statistics of every user are written once per batch.
+ * <p>
+ * The statistics row of every user whose trainings were saved is locked until the end of the transaction, even if its totals
+ * do not change, and before any other row derived from the trainings of the user. The first statistics of a user are created
+ * under the lock of the user row, so concurrent first trainings of a user wait for each other instead of both inserting the row.
+ * The deltas are applied under the shared {@link StatisticsRebuildLock}, so they are not lost to a concurrent rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+class StatisticsUpdater {
+
+    /**
+     * The order of the listeners of this class among the listeners of saved trainings, before the ones deriving other rows.
+     */
+    static final int ORDER = 0;
+
+    private final StatisticsRepository statisticsRepository;
+    private final StatisticsCache statisticsCache;
+    private final StatisticsRebuildLock rebuildLock;
+    private final EntityManager entityManager;
+
+    @EventListener
+    @Order(ORDER)
+    @Transactional
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @EventListener
+    @Order(ORDER)
+    @Transactional
+    public void onTrainingBatchSaved(TrainingBatchSavedEvent event) {
+        applyAll(event.savedTrainings());
+    }
+
+    /**
+     * Sums the deltas up per user, and applies them in the order of user IDs, so that concurrent writers lock the rows in the same order.
+     */
+    private void applyAll(List<TrainingSavedEvent> events) {
+        rebuildLock.lockForDeltas();
+        Map<Long, Delta> deltas = new TreeMap<>();
+        for (TrainingSavedEvent event : events) {
+            if (event.previous() != null) {
+                accumulate(deltas, event.previous(), -1);
+            }
+            accumulate(deltas, event.current(), 1);
+        }
+        deltas.forEach(this::apply);
+    }
+
+    private static void accumulate(Map<Long, Delta> deltas, TrainingSnapshot training, int sign) {
+        Delta delta = deltas.computeIfAbsent(training.userId(), userId -> new Delta());
+        delta.trainings += sign;
+        delta.distance += sign * training.distance();
+        delta.caloriesBurned += sign * CaloriesEstimator.caloriesBurned(training);
+    }
+
+    private void apply(Long userId, Delta delta) {
+        Statistics statistics = statisticsRepository.findForUpdateByUserId(userId).orElseGet(() -> create(userId));
+        if (!delta.isZero()) {
+            statistics.add(delta.trainings, delta.distance, delta.caloriesBurned);
+            statisticsCache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Creates the statistics of a user holding the lock of the user row. A concurrent transaction may have created them
+     * while the lock was awaited, so they are looked up again once the lock is held.
+     */
+    private Statistics create(Long userId) {
+        User user = entityManager.find(User.class, userId, LockModeType.PESSIMISTIC_WRITE);
+        return statisticsRepository.findForUpdateByUserId(userId)
+                .orElseGet(() -> statisticsRepository.save(new Statistics(user)));
+    }
+
+    private static final class Delta {
+
+        private int trainings;
+        private double distance;
+        private int caloriesBurned;
+
+        boolean isZero() {
+            return trainings == 0 && distance == 0 && caloriesBurned == 0;
+        }
+    }
+}
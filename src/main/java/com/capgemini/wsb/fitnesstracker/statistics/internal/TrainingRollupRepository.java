@@ -0,0 +1,72 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for managing TrainingRollup entities.
+ */
+interface TrainingRollupRepository extends JpaRepository<TrainingRollup, Long> {
+
+    /**
+     * Finds a single rollup bucket, locking the row until the end of the transaction,
+     * so that concurrent deltas for the same bucket are applied one after another.
+     *
+     * @param userId       the ID of the user.
+     * @param granularity  the granularity of the bucket.
+     * @param bucketStart  the first day of the bucket.
+     * @param activityType the activity type of the bucket.
+     * @return the locked rollup bucket, if there is one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select r from TrainingRollup r
+            where r.user.id = :userId and r.granularity = :granularity
+              and r.bucketStart = :bucketStart and r.activityType = :activityType
+            """)
+    Optional<TrainingRollup> findForUpdate(Long userId, RollupGranularity granularity, LocalDate bucketStart, ActivityType activityType);
+
+    /**
+     * Finds the rollup buckets of a user starting within the given range, using the unique index of the rollups table.
+     *
+     * @param userId       the ID of the user.
+     * @param granularity  the granularity of the buckets.
+     * @param from         the earliest bucket start (inclusive).
+     * @param to           the latest bucket start (exclusive).
+     * @param activityType the activity type to limit the result to, or null for all activity types.
+     * @return the buckets, ordered by bucket start and activity type.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupDto(
+                r.activityType, r.bucketStart, r.totalTrainings, r.totalDistance, r.totalDurationSeconds)
+            from TrainingRollup r
+            where r.user.id = :userId and r.granularity = :granularity
+              and r.bucketStart >= :from and r.bucketStart < :to
+              and (:activityType is null or r.activityType = :activityType)
+            order by r.bucketStart, r.activityType
+            """)
+    List<TrainingRollupDto> findRange(Long userId,
+                                      RollupGranularity granularity,
+                                      LocalDate from,
+                                      LocalDate to,
+                                      @Nullable ActivityType activityType);
+
+    /**
+     * Removes all rollup buckets with a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TrainingRollup")
+    void deleteAllInBulk();
+}
@@ -0,0 +1,78 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the {@link TrainingRollup} buckets up to date, by subtracting the previous state of every saved training
+ * from its buckets and adding the current state to its (possibly different) buckets.
+ * Buckets left without trainings are removed. The deltas are applied within the transaction that saved the training.
+ * The deltas of a batch of trainings are summed up per bucket first, so every bucket is written once per batch.
+ * <p>
+ * The listeners run after the {@link StatisticsUpdater}, which holds the lock of the statistics of every user whose trainings
+ * were saved until the end of the transaction. The buckets of a user are therefore never created by two transactions at once.
+ * Like the statistics, the buckets are written under the shared {@link StatisticsRebuildLock}.
+ */
+@Component
+@RequiredArgsConstructor
+class TrainingRollupUpdater {
+
+    private final TrainingRollupRepository trainingRollupRepository;
+    private final StatisticsRebuildLock rebuildLock;
+    private final EntityManager entityManager;
+
+    @EventListener
+    @Order(StatisticsUpdater.ORDER + 1)
+    @Transactional
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @EventListener
+    @Order(StatisticsUpdater.ORDER + 1)
+    @Transactional
+    public void onTrainingBatchSaved(TrainingBatchSavedEvent event) {
+        applyAll(event.savedTrainings());
+    }
+
+    private void applyAll(List<TrainingSavedEvent> events) {
+        rebuildLock.lockForDeltas();
+        Map<RollupKey, RollupTotals> deltas = new TreeMap<>(RollupKey.ORDER);
+        for (TrainingSavedEvent event : events) {
+            if (event.previous() != null) {
+                RollupTotals.accumulate(deltas, event.previous(), -1);
+            }
+            RollupTotals.accumulate(deltas, event.current(), 1);
+        }
+        deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                apply(key, delta);
+            }
+        });
+    }
+
+    private void apply(RollupKey key, RollupTotals delta) {
+        TrainingRollup rollup = trainingRollupRepository
+                .findForUpdate(key.userId(), key.granularity(), key.bucketStart(), key.activityType())
+                .orElseGet(() -> trainingRollupRepository.save(new TrainingRollup(entityManager.getReference(User.class, key.userId()),
+                                                                                  key.activityType(),
+                                                                                  key.granularity(),
+                                                                                  key.bucketStart())));
+        rollup.add(delta.trainings, delta.distance, delta.durationSeconds);
+        if (rollup.getTotalTrainings() <= 0) {
+            trainingRollupRepository.delete(rollup);
+        }
+    }
+}
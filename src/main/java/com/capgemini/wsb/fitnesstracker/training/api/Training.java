@@ -8,15 +8,23 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Date;
 
 /**
  * Entity representing a training session in the fitness tracker.
+ * Updates are checked against the {@link #version} (optimistic locking) and write only the changed columns.
  */
 
 @Entity
-@Table(name = "trainings")
+@Table(name = "trainings",
+       indexes = {
+               @Index(name = "idx_trainings_user_end_time_id", columnList = "user_id, end_time, id"),
+               @Index(name = "idx_trainings_activity_type_end_time", columnList = "activity_type, end_time"),
+               @Index(name = "idx_trainings_end_time_id", columnList = "end_time, id")
+       })
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -24,7 +32,8 @@ import java.util.Date;
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -47,6 +56,10 @@ public class Training {
     @Column(name = "average_speed")
     private double averageSpeed;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public Training(
         final User user,
         final Date startTime,
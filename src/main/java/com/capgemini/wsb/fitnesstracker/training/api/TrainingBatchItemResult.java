@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Outcome of a single item of a batch training upload.
+ *
+ * @param index      position of the item in the uploaded batch
+ * @param status     whether the item was created or rejected
+ * @param trainingId ID of the created training, null if the item was rejected
+ * @param error      reason of the rejection, null if the item was created
+ */
+public record TrainingBatchItemResult(int index, Status status, @Nullable Long trainingId, @Nullable String error) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static TrainingBatchItemResult created(int index, Long trainingId) {
+        return new TrainingBatchItemResult(index, Status.CREATED, trainingId, null);
+    }
+
+    public static TrainingBatchItemResult rejected(int index, String error) {
+        return new TrainingBatchItemResult(index, Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.util.List;
+
+/**
+ * Event published by the {@link TrainingService} once for a whole batch of created trainings, after the batch is flushed,
+ * instead of a {@link TrainingSavedEvent} per training. Listeners maintaining derived data sum the changes up
+ * per derived row first, so every row is written once per batch.
+ *
+ * @param savedTrainings the changes of all trainings created by the batch, in the order of the batch
+ */
+public record TrainingBatchSavedEvent(List<TrainingSavedEvent> savedTrainings) {
+
+}
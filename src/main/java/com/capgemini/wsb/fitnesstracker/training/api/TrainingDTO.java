@@ -16,6 +16,19 @@ public class TrainingDTO {
     private double distance;
     private double averageSpeed;
 
+    public TrainingDTO() {
+    }
+
+    public TrainingDTO(Long id, Long userId, Date startTime, Date endTime, ActivityType activityType, double distance, double averageSpeed) {
+        this.id = id;
+        this.userId = userId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.activityType = activityType;
+        this.distance = distance;
+        this.averageSpeed = averageSpeed;
+    }
+
     // Getters and Setters
 
     public Long getId() {
@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.Date;
+
+/**
+ * Partial update of a {@link Training}. Only the non-null attributes are changed.
+ *
+ * @param version      the version of the training the changes are based on, as returned with the training (required)
+ * @param startTime    the new start time, or null to keep the current one
+ * @param endTime      the new end time, or null to keep the current one
+ * @param activityType the new activity type, or null to keep the current one
+ * @param distance     the new distance, or null to keep the current one
+ * @param averageSpeed the new average speed, or null to keep the current one
+ */
+public record TrainingPatch(@Nullable Long version,
+                            @Nullable Date startTime,
+                            @Nullable Date endTime,
+                            @Nullable ActivityType activityType,
+                            @Nullable Double distance,
+                            @Nullable Double averageSpeed) {
+
+    /**
+     * Tells whether the patch leaves all attributes of the training as they are.
+     *
+     * @return true if none of the attributes is to be changed
+     */
+    public boolean changesNothing() {
+        return startTime == null && endTime == null && activityType == null && distance == null && averageSpeed == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Event published by the {@link TrainingService} within the writing transaction, every time a training is created or updated.
+ * Trainings created by a batch are announced together, by a single {@link TrainingBatchSavedEvent}.
+ * Listeners maintaining derived data (statistics, aggregates) apply the difference between the previous and the current state.
+ *
+ * @param previous state of the training before the change, null if the training was created
+ * @param current  state of the training after the change
+ */
+public record TrainingSavedEvent(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    public boolean isCreation() {
+        return previous == null;
+    }
+}
@@ -1,8 +1,11 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing trainings.
@@ -16,6 +19,35 @@ public interface TrainingService {
      */
     List<Training> getAllTrainings();
 
+    /**
+     * Retrieves a page of trainings ordered by end time and ID.
+     *
+     * @param afterEndTime the end time of the last training of the previous page, or null for the first page.
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings following the given keyset.
+     */
+    List<Training> getTrainingsPage(@Nullable Date afterEndTime, @Nullable Long afterId, int limit);
+
+    /**
+     * Retrieves a page of trainings ordered by end time and ID as flat DTOs, without loading their users.
+     *
+     * @param afterEndTime the end time of the last training of the previous page, or null for the first page.
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of training DTOs to return.
+     * @return a list of training DTOs following the given keyset.
+     */
+    List<TrainingDTO> getTrainingDtosPage(@Nullable Date afterEndTime, @Nullable Long afterId, int limit);
+
+    /**
+     * Streams all trainings, one by one, to the given consumer.
+     * Trainings are read with a database cursor and are not kept in memory once consumed,
+     * so the whole table can be exported in constant memory.
+     *
+     * @param consumer the consumer receiving every training.
+     */
+    void exportTrainings(Consumer<Training> consumer);
+
     /**
      * Retrieves trainings for a specific user.
      *
@@ -24,6 +56,26 @@ public interface TrainingService {
      */
     List<Training> getTrainingsByUser(Long userId);
 
+    /**
+     * Retrieves trainings for a specific user as flat DTOs, without loading the user.
+     *
+     * @param userId the ID of the user.
+     * @return a list of training DTOs for the specified user.
+     */
+    List<TrainingDTO> getTrainingDtosByUser(Long userId);
+
+    /**
+     * Retrieves the trainings of all users within the given user ID range that ended within the given time range, as flat DTOs.
+     * Meant for jobs processing users in chunks, which would otherwise query the trainings of every user separately.
+     *
+     * @param fromUserId the lowest user ID (inclusive).
+     * @param toUserId   the highest user ID (inclusive).
+     * @param from       the earliest end time (inclusive).
+     * @param to         the latest end time (exclusive).
+     * @return a list of training DTOs ordered by user ID.
+     */
+    List<TrainingDTO> getTrainingDtosOfUsersEndedBetween(Long fromUserId, Long toUserId, Date from, Date to);
+
     /**
      * Retrieves trainings by activity type.
      *
@@ -32,6 +84,14 @@ public interface TrainingService {
      */
     List<Training> getTrainingsByActivityType(ActivityType activityType);
 
+    /**
+     * Retrieves trainings by activity type as flat DTOs, without loading their users.
+     *
+     * @param activityType the type of activity.
+     * @return a list of training DTOs with the specified activity type.
+     */
+    List<TrainingDTO> getTrainingDtosByActivityType(ActivityType activityType);
+
     /**
      * Retrieves all finished trainings after a specified time.
      *
@@ -40,13 +100,41 @@ public interface TrainingService {
      */
     List<Training> getFinishedTrainingsAfter(Date afterTime);
 
+    /**
+     * Retrieves all finished trainings after a specified time as flat DTOs, without loading their users.
+     *
+     * @param afterTime the date to filter finished trainings by.
+     * @return a list of finished training DTOs after the specified date.
+     */
+    List<TrainingDTO> getFinishedTrainingDtosAfter(Date afterTime);
+
+    /**
+     * Retrieves a page of the trainings that ended within a time range, ordered by end time and ID.
+     *
+     * @param userId the ID of the user whose trainings are retrieved, or null for the trainings of all users.
+     * @param from the earliest end time (inclusive), or the end time of the last training of the previous page.
+     * @param to the latest end time (exclusive).
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings ordered by end time and ID.
+     */
+    List<Training> getFinishedTrainingsPage(@Nullable Long userId, Date from, Date to, @Nullable Long afterId, int limit);
+
     /**
      * Creates a new training.
      *
      * @param training the training to create.
      * @return the created training.
      */
-    Training createTraining(Training training);
+    Training createTraining(TrainingDTO training);
+
+    /**
+     * Creates a batch of trainings, reporting the outcome of every item.
+     *
+     * @param trainings the trainings to create.
+     * @return the outcome of every item, in the order of the given trainings.
+     */
+    List<TrainingBatchItemResult> createTrainings(List<TrainingDTO> trainings);
 
     /**
      * Updates an existing training.
@@ -56,4 +144,13 @@ public interface TrainingService {
      * @return the updated training.
      */
     Training updateTraining(Long trainingId, Training training);
+
+    /**
+     * Changes the given attributes of an existing training, if it was not modified since the version the changes are based on.
+     *
+     * @param trainingId the ID of the training to change.
+     * @param patch the attributes to change and the version they are based on.
+     * @return the changed training, with its new version.
+     */
+    Training patchTraining(Long trainingId, TrainingPatch patch);
 }
@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable copy of the state of a {@link Training} at a given moment, safe to keep after the entity has changed.
+ */
+public record TrainingSnapshot(Long trainingId,
+                               Long userId,
+                               Instant startTime,
+                               Instant endTime,
+                               ActivityType activityType,
+                               double distance,
+                               double averageSpeed) {
+
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(
+                training.getId(),
+                training.getUser().getId(),
+                training.getStartTime().toInstant(),
+                training.getEndTime().toInstant(),
+                training.getActivityType(),
+                training.getDistance(),
+                training.getAverageSpeed()
+        );
+    }
+
+    public Duration duration() {
+        return Duration.between(startTime, endTime);
+    }
+}
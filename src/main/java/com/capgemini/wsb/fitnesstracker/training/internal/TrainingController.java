@@ -1,18 +1,36 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.KeysetPagination;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchItemResult;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.versioning.api.ResourceVersions;
+import com.capgemini.wsb.fitnesstracker.versioning.api.VersionedResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.constraints.Positive;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * REST controller for managing trainings.
+ * The trainings of a user and the collection of all trainings carry strong ETags derived from the {@link ResourceVersions},
+ * and a request whose {@code If-None-Match} header still matches is answered with 304 before the trainings are read.
  */
 @RestController
 @RequestMapping("/v1/trainings")
@@ -21,42 +39,187 @@ public class TrainingController {
     @Autowired
     private TrainingService trainingService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     /**
-     * Retrieves all trainings.
+     * Retrieves a page of trainings ordered by end time and ID.
+     * If there are more trainings, the response contains a {@code Link} header pointing to the next page.
      *
-     * @return a ResponseEntity containing a list of all trainings.
+     * @param cursor the cursor of the page to retrieve, taken from the {@code Link} header of the previous page.
+     * @param size the maximum number of trainings in the page.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
+     * @return a ResponseEntity containing a list of trainings.
      */
     @GetMapping
-    public ResponseEntity<List<Training>> getAllTrainings() {
-        List<Training> trainings = trainingService.getAllTrainings();
-        return ResponseEntity.ok(trainings);
+    public ResponseEntity<List<Training>> getAllTrainings(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) @Positive Integer size,
+                                                          WebRequest request) {
+        if (request.checkNotModified(resourceVersions.collectionETag(VersionedResource.TRAININGS))) {
+            return null;
+        }
+        int pageSize = KeysetPagination.pageSize(size);
+        List<Training> trainings;
+        if (cursor == null) {
+            trainings = trainingService.getTrainingsPage(null, null, pageSize + 1);
+        } else {
+            long[] keys = KeysetPagination.decodeCursor(cursor, 2);
+            trainings = trainingService.getTrainingsPage(new Date(keys[0]), keys[1], pageSize + 1);
+        }
+        return KeysetPagination.toResponse(trainings,
+                                           pageSize,
+                                           training -> KeysetPagination.encodeCursor(training.getEndTime().getTime(), training.getId()),
+                                           Function.identity());
+    }
+
+    /**
+     * Retrieves a page of trainings ordered by end time and ID in the flat form, carrying only the IDs of the users.
+     * If there are more trainings, the response contains a {@code Link} header pointing to the next page.
+     *
+     * @param cursor the cursor of the page to retrieve, taken from the {@code Link} header of the previous page.
+     * @param size the maximum number of trainings in the page.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
+     * @return a ResponseEntity containing a list of training DTOs.
+     */
+    @GetMapping("/flat")
+    public ResponseEntity<List<TrainingDTO>> getAllFlatTrainings(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) @Positive Integer size,
+                                                                 WebRequest request) {
+        if (request.checkNotModified(resourceVersions.collectionETag(VersionedResource.TRAININGS))) {
+            return null;
+        }
+        int pageSize = KeysetPagination.pageSize(size);
+        List<TrainingDTO> trainings;
+        if (cursor == null) {
+            trainings = trainingService.getTrainingDtosPage(null, null, pageSize + 1);
+        } else {
+            long[] keys = KeysetPagination.decodeCursor(cursor, 2);
+            trainings = trainingService.getTrainingDtosPage(new Date(keys[0]), keys[1], pageSize + 1);
+        }
+        return KeysetPagination.toResponse(trainings,
+                                           pageSize,
+                                           training -> KeysetPagination.encodeCursor(training.getEndTime().getTime(), training.getId()),
+                                           Function.identity());
+    }
+
+    /**
+     * Exports all trainings as newline-delimited JSON, one training per line.
+     * The response is streamed while the trainings are read from the database,
+     * so the export starts sending data immediately and does not hold the whole table in memory.
+     *
+     * @return a ResponseEntity streaming all trainings.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTrainings() {
+        ObjectWriter writer = objectMapper.writerFor(Training.class);
+        StreamingResponseBody body = outputStream -> trainingService.exportTrainings(training -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(training));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * Retrieves trainings for a specific user.
      *
      * @param userId the ID of the user.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
      * @return a ResponseEntity containing a list of trainings for the specified user.
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Training>> getTrainingsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<Training>> getTrainingsByUser(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(resourceVersions.eTag(VersionedResource.TRAININGS, userId))) {
+            return null;
+        }
         List<Training> trainings = trainingService.getTrainingsByUser(userId);
         return ResponseEntity.ok(trainings);
     }
 
+    /**
+     * Retrieves trainings for a specific user in the flat form, carrying only the ID of the user.
+     *
+     * @param userId the ID of the user.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
+     * @return a ResponseEntity containing a list of training DTOs for the specified user.
+     */
+    @GetMapping("/{userId}/flat")
+    public ResponseEntity<List<TrainingDTO>> getFlatTrainingsByUser(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(resourceVersions.eTag(VersionedResource.TRAININGS, userId))) {
+            return null;
+        }
+        return ResponseEntity.ok(trainingService.getTrainingDtosByUser(userId));
+    }
+
+    /**
+     * Retrieves a page of the trainings that ended within a time range, of all users or of a single user, ordered by end time and ID.
+     * If there are more trainings in the range, the response contains a {@code Link} header pointing to the next page,
+     * so an incremental sync client can fetch only the trainings that ended since its last sync, page by page.
+     *
+     * @param from the earliest end time (inclusive, ISO-8601 instant, e.g. 2024-05-18T10:15:30Z).
+     * @param to the latest end time (exclusive, ISO-8601 instant).
+     * @param userId the ID of the user whose trainings are retrieved, all users if not given.
+     * @param cursor the cursor of the page to retrieve, taken from the {@code Link} header of the previous page.
+     * @param size the maximum number of trainings in the page.
+     * @return a ResponseEntity containing a list of trainings.
+     */
+    @GetMapping("/finished")
+    public ResponseEntity<List<Training>> getFinishedTrainingsBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                      @RequestParam(required = false) Long userId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) @Positive Integer size) {
+        int pageSize = KeysetPagination.pageSize(size);
+        List<Training> trainings;
+        if (cursor == null) {
+            trainings = trainingService.getFinishedTrainingsPage(userId, Date.from(from), Date.from(to), null, pageSize + 1);
+        } else {
+            long[] keys = KeysetPagination.decodeCursor(cursor, 2);
+            trainings = trainingService.getFinishedTrainingsPage(userId, new Date(keys[0]), Date.from(to), keys[1], pageSize + 1);
+        }
+        return KeysetPagination.toResponse(trainings,
+                                           pageSize,
+                                           training -> KeysetPagination.encodeCursor(training.getEndTime().getTime(), training.getId()),
+                                           Function.identity());
+    }
+
     /**
      * Retrieves all finished trainings after a specified time.
+     * The result is not bounded, so clients fetching trainings incrementally should use {@link #getFinishedTrainingsBetween} instead.
      *
-     * @param afterTime the date to filter finished trainings by.
+     * @param afterTime the date (yyyy-MM-dd) or the ISO-8601 timestamp to filter finished trainings by.
      * @return a ResponseEntity containing a list of finished trainings after the specified date.
      */
     @GetMapping("/finished/{afterTime}")
     public ResponseEntity<List<Training>> getFinishedTrainingsAfterTime(
-            @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") Date afterTime) {
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+                                          fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date afterTime) {
         List<Training> trainings = trainingService.getFinishedTrainingsAfter(afterTime);
         return ResponseEntity.ok(trainings);
     }
 
+    /**
+     * Retrieves all finished trainings after a specified time in the flat form, carrying only the IDs of the users.
+     * The result is not bounded, like the one of {@link #getFinishedTrainingsAfterTime}.
+     *
+     * @param afterTime the date (yyyy-MM-dd) or the ISO-8601 timestamp to filter finished trainings by.
+     * @return a ResponseEntity containing a list of finished training DTOs after the specified date.
+     */
+    @GetMapping("/finished/{afterTime}/flat")
+    public ResponseEntity<List<TrainingDTO>> getFlatFinishedTrainingsAfterTime(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+                                          fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date afterTime) {
+        return ResponseEntity.ok(trainingService.getFinishedTrainingDtosAfter(afterTime));
+    }
+
     /**
      * Retrieves trainings by activity type.
      *
@@ -69,6 +232,17 @@ public class TrainingController {
         return ResponseEntity.ok(trainings);
     }
 
+    /**
+     * Retrieves trainings by activity type in the flat form, carrying only the IDs of the users.
+     *
+     * @param activityType the type of activity to filter by.
+     * @return a ResponseEntity containing a list of training DTOs with the specified activity type.
+     */
+    @GetMapping("/activityType/flat")
+    public ResponseEntity<List<TrainingDTO>> getFlatTrainingsByActivityType(@RequestParam ActivityType activityType) {
+        return ResponseEntity.ok(trainingService.getTrainingDtosByActivityType(activityType));
+    }
+
     /**
      * Creates a new training.
      *
@@ -76,11 +250,23 @@ public class TrainingController {
      * @return a ResponseEntity containing the created training.
      */
     @PostMapping
-    public ResponseEntity<Training> createTraining(@RequestBody Training training) {
+    public ResponseEntity<Training> createTraining(@RequestBody TrainingDTO training) {
         Training createdTraining = trainingService.createTraining(training);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTraining);
     }
 
+    /**
+     * Creates a batch of trainings.
+     * Items are validated and inserted independently, so the response reports the outcome of every item.
+     *
+     * @param trainings the trainings to create.
+     * @return a ResponseEntity containing the outcome of every item, in the order of the request.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TrainingBatchItemResult>> createTrainings(@RequestBody List<TrainingDTO> trainings) {
+        return ResponseEntity.ok(trainingService.createTrainings(trainings));
+    }
+
     /**
      * Updates an existing training.
      *
@@ -93,4 +279,18 @@ public class TrainingController {
         Training updatedTraining = trainingService.updateTraining(trainingId, training);
         return ResponseEntity.ok(updatedTraining);
     }
+
+    /**
+     * Changes only the given attributes of an existing training.
+     * The patch carries the version of the training it is based on, and is rejected with 409 if the training has been modified since.
+     * A patch changing no attribute is rejected with 400, so it does not produce a new version.
+     *
+     * @param trainingId the ID of the training to change.
+     * @param patch the attributes to change and the version of the training they are based on.
+     * @return a ResponseEntity containing the changed training, with its new version.
+     */
+    @PatchMapping("/{trainingId}")
+    public ResponseEntity<Training> patchTraining(@PathVariable Long trainingId, @RequestBody TrainingPatch patch) {
+        return ResponseEntity.ok(trainingService.patchTraining(trainingId, patch));
+    }
 }
@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper component for converting Training DTOs to Training entities.
+ */
+@Component
+class TrainingMapper {
+
+    /**
+     * Converts a TrainingDTO to a Training entity of the given user.
+     *
+     * @param trainingDto the TrainingDTO to convert.
+     * @param user the user the training belongs to.
+     * @return the converted Training entity.
+     */
+    Training toEntity(TrainingDTO trainingDto, User user) {
+        return new Training(
+                user,
+                trainingDto.getStartTime(),
+                trainingDto.getEndTime(),
+                trainingDto.getActivityType(),
+                trainingDto.getDistance(),
+                trainingDto.getAverageSpeed()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
+
+/**
+ * Repository fragment of {@link TrainingRepository} writing partial updates of trainings.
+ * The update depends on which attributes are changed, so it cannot be declared as a single {@code @Query}.
+ */
+public interface TrainingPatchRepository {
+
+    /**
+     * Updates the attributes changed by the patch and increments the version, with a single JPQL update of the changed columns only,
+     * provided the training is still at the given version.
+     * Like a {@code @Modifying(flushAutomatically = true, clearAutomatically = true)} query, pending changes are flushed before
+     * and the persistence context is cleared after the update, so the training is read again with its new state afterwards.
+     *
+     * @param trainingId the ID of the training to change.
+     * @param version the version of the training the changes are based on.
+     * @param patch the attributes to change.
+     * @return the number of updated trainings, {@code 0} if the training is missing or at another version.
+     */
+    int updateChangedColumns(Long trainingId, long version, TrainingPatch patch);
+}
@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link TrainingPatchRepository} fragment, picked up by Spring Data through its {@code Impl} suffix.
+ */
+@RequiredArgsConstructor
+class TrainingPatchRepositoryImpl implements TrainingPatchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int updateChangedColumns(Long trainingId, long version, TrainingPatch patch) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Optional.ofNullable(patch.startTime()).ifPresent(startTime -> changes.put("startTime", startTime));
+        Optional.ofNullable(patch.endTime()).ifPresent(endTime -> changes.put("endTime", endTime));
+        Optional.ofNullable(patch.activityType()).ifPresent(activityType -> changes.put("activityType", activityType));
+        Optional.ofNullable(patch.distance()).ifPresent(distance -> changes.put("distance", distance));
+        Optional.ofNullable(patch.averageSpeed()).ifPresent(averageSpeed -> changes.put("averageSpeed", averageSpeed));
+
+        String assignments = changes.keySet().stream()
+                .map(attribute -> "t.%s = :%s, ".formatted(attribute, attribute))
+                .collect(Collectors.joining());
+        entityManager.flush();
+        Query update = entityManager.createQuery("""
+                update Training t set %st.version = t.version + 1
+                where t.id = :id and t.version = :version""".formatted(assignments));
+        changes.forEach(update::setParameter);
+        update.setParameter("id", trainingId);
+        update.setParameter("version", version);
+        int updated = update.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -1,22 +1,127 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing Training entities.
+ * Partial updates are written by the {@link TrainingPatchRepository} fragment.
  */
-public interface TrainingRepository extends JpaRepository<Training, Long> {
+public interface TrainingRepository extends JpaRepository<Training, Long>, TrainingPatchRepository {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Finds all trainings, fetching their users in the same query.
+     *
+     * @return a list of all trainings.
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Training> findAll();
+
+    /**
+     * Reads the first page of trainings ordered by end time and ID (keyset pagination).
+     *
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t order by t.endTime, t.id")
+    List<Training> findFirstPage(Limit limit);
+
+    /**
+     * Reads a page of trainings ordered by end time and ID, starting right after the given keyset (keyset pagination).
+     * The leading {@code endTime >= :endTime} condition lets the database seek on the end time index,
+     * which it cannot do for a plain disjunction of the two keyset conditions.
+     *
+     * @param endTime the end time of the last training of the previous page.
+     * @param id the ID of the last training of the previous page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings following the given keyset, ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.endTime >= :endTime and (t.endTime > :endTime or t.id > :id)
+            order by t.endTime, t.id
+            """)
+    List<Training> findPageAfter(Date endTime, Long id, Limit limit);
+
+    /**
+     * Reads a page of the trainings that ended within the given time range, ordered by end time and ID (keyset pagination).
+     * The next page is read by passing the end time and the ID of the last training of the previous page as {@code from} and {@code afterId},
+     * so every page is a bounded seek on the end time index, however far the client has already read.
+     *
+     * @param from the earliest end time (inclusive), or the end time of the last training of the previous page.
+     * @param to the latest end time (exclusive).
+     * @param afterId the ID of the last training of the previous page, or {@code 0} for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.endTime >= :from and t.endTime < :to and (t.endTime > :from or t.id > :afterId)
+            order by t.endTime, t.id
+            """)
+    List<Training> findPageEndedBetween(Date from, Date to, long afterId, Limit limit);
+
+    /**
+     * Reads a page of the trainings of a single user that ended within the given time range, ordered by end time and ID (keyset pagination),
+     * in the same way as {@link #findPageEndedBetween(Date, Date, long, Limit)}. The condition is put on the {@code user_id} column,
+     * so the database seeks on the user and end time index.
+     *
+     * @param userId the ID of the user.
+     * @param from the earliest end time (inclusive), or the end time of the last training of the previous page.
+     * @param to the latest end time (exclusive).
+     * @param afterId the ID of the last training of the previous page, or {@code 0} for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings of the user ordered by end time and ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.user.id = :userId and t.endTime >= :from and t.endTime < :to and (t.endTime > :from or t.id > :afterId)
+            order by t.endTime, t.id
+            """)
+    List<Training> findPageByUserIdEndedBetween(Long userId, Date from, Date to, long afterId, Limit limit);
+
+    /**
+     * Streams all trainings together with their users, ordered by ID.
+     * Rows are fetched from the database in chunks and the loaded entities are read-only,
+     * so Hibernate keeps no dirty-checking snapshots for them. The stream has to be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of all trainings.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Training t join fetch t.user order by t.id")
+    Stream<Training> streamAll();
 
     /**
      * Finds trainings by the user ID.
+     * The condition is put on the {@code user_id} column itself, since the derived query would filter on a joined {@code users} row
+     * and so could not use the user index of the trainings table.
      *
      * @param userId the ID of the user.
      * @return a list of trainings associated with the specified user ID.
      */
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.user.id = :userId")
     List<Training> findByUserId(Long userId);
 
     /**
@@ -25,6 +130,7 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param activityType the type of activity.
      * @return a list of trainings with the specified activity type.
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByActivityType(ActivityType activityType);
 
     /**
@@ -33,5 +139,103 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param afterTime the date to compare with the end time of the trainings.
      * @return a list of trainings that have ended after the specified date.
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByEndTimeAfter(Date afterTime);
+
+    /**
+     * Finds trainings by the user ID as flat DTOs carrying only the user ID.
+     * The {@code users} table is not read at all.
+     *
+     * @param userId the ID of the user.
+     * @return a list of training DTOs associated with the specified user ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id = :userId
+            """)
+    List<TrainingDTO> findDtosByUserId(Long userId);
+
+    /**
+     * Finds the first page of all trainings ordered by end time and ID as flat DTOs carrying only the user ID (keyset pagination).
+     * The {@code users} table is not read at all.
+     *
+     * @param limit the maximum number of training DTOs to return.
+     * @return a list of training DTOs ordered by end time and ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            order by t.endTime, t.id
+            """)
+    List<TrainingDTO> findAllDtos(Limit limit);
+
+    /**
+     * Finds a page of all trainings ordered by end time and ID as flat DTOs, starting right after the given keyset,
+     * in the same way as {@link #findPageAfter(Date, Long, Limit)}. The {@code users} table is not read at all.
+     *
+     * @param endTime the end time of the last training of the previous page.
+     * @param id the ID of the last training of the previous page.
+     * @param limit the maximum number of training DTOs to return.
+     * @return a list of training DTOs following the given keyset, ordered by end time and ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.endTime >= :endTime and (t.endTime > :endTime or t.id > :id)
+            order by t.endTime, t.id
+            """)
+    List<TrainingDTO> findAllDtosAfter(Date endTime, Long id, Limit limit);
+
+    /**
+     * Finds trainings that have ended after the specified date as flat DTOs carrying only the user ID.
+     * The {@code users} table is not read at all.
+     *
+     * @param afterTime the date to compare with the end time of the trainings.
+     * @return a list of training DTOs that have ended after the specified date.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.endTime > :afterTime
+            """)
+    List<TrainingDTO> findDtosByEndTimeAfter(Date afterTime);
+
+    /**
+     * Finds the trainings of all users within the given user ID range that ended within the given time range, as flat DTOs.
+     * The {@code users} table is not read at all.
+     *
+     * @param fromUserId the lowest user ID (inclusive).
+     * @param toUserId the highest user ID (inclusive).
+     * @param from the earliest end time (inclusive).
+     * @param to the latest end time (exclusive).
+     * @return a list of training DTOs ordered by user ID.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id between :fromUserId and :toUserId and t.endTime >= :from and t.endTime < :to
+            order by t.user.id
+            """)
+    List<TrainingDTO> findDtosByUserIdBetweenAndEndTimeBetween(Long fromUserId, Long toUserId, Date from, Date to);
+
+    /**
+     * Finds trainings by activity type as flat DTOs carrying only the user ID.
+     * The {@code users} table is not read at all.
+     *
+     * @param activityType the type of activity.
+     * @return a list of training DTOs with the specified activity type.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.activityType = :activityType
+            """)
+    List<TrainingDTO> findDtosByActivityType(ActivityType activityType);
 }
@@ -1,28 +1,77 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchItemResult;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import com.capgemini.wsb.fitnesstracker.versioning.api.ResourceVersions;
+import com.capgemini.wsb.fitnesstracker.versioning.api.VersionedResource;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for managing trainings.
+ * Every created or updated training is announced with a {@link TrainingSavedEvent}, published within the writing transaction,
+ * and bumps the {@link ResourceVersions} of the trainings of its user.
  */
 @Service
 public class TrainingServiceImpl implements TrainingService {
 
+    static final int INSERT_CHUNK_SIZE = 50;
+    static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private TrainingRepository trainingRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserProvider userProvider;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TrainingMapper trainingMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     /**
      * Retrieves all trainings.
      *
@@ -33,6 +82,59 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of trainings ordered by end time and ID.
+     *
+     * @param afterEndTime the end time of the last training of the previous page, or null for the first page.
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings following the given keyset.
+     */
+    @Override
+    public List<Training> getTrainingsPage(@Nullable Date afterEndTime, @Nullable Long afterId, int limit) {
+        if (afterEndTime == null || afterId == null) {
+            return trainingRepository.findFirstPage(Limit.of(limit));
+        }
+        return trainingRepository.findPageAfter(afterEndTime, afterId, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a page of trainings ordered by end time and ID as flat DTOs, without loading their users.
+     *
+     * @param afterEndTime the end time of the last training of the previous page, or null for the first page.
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of training DTOs to return.
+     * @return a list of training DTOs following the given keyset.
+     */
+    @Override
+    public List<TrainingDTO> getTrainingDtosPage(@Nullable Date afterEndTime, @Nullable Long afterId, int limit) {
+        if (afterEndTime == null || afterId == null) {
+            return trainingRepository.findAllDtos(Limit.of(limit));
+        }
+        return trainingRepository.findAllDtosAfter(afterEndTime, afterId, Limit.of(limit));
+    }
+
+    /**
+     * Streams all trainings, one by one, to the given consumer.
+     * The persistence context is cleared every {@link TrainingRepository#EXPORT_FETCH_SIZE} trainings,
+     * so already exported entities can be garbage collected.
+     *
+     * @param consumer the consumer receiving every training.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTrainings(Consumer<Training> consumer) {
+        try (Stream<Training> trainings = trainingRepository.streamAll()) {
+            int exported = 0;
+            for (Training training : (Iterable<Training>) trainings::iterator) {
+                consumer.accept(training);
+                if (++exported % TrainingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     /**
      * Retrieves trainings for a specific user.
      *
@@ -44,6 +146,31 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves trainings for a specific user as flat DTOs, without loading the user.
+     *
+     * @param userId the ID of the user.
+     * @return a list of training DTOs for the specified user.
+     */
+    @Override
+    public List<TrainingDTO> getTrainingDtosByUser(Long userId) {
+        return trainingRepository.findDtosByUserId(userId);
+    }
+
+    /**
+     * Retrieves the trainings of all users within the given user ID range that ended within the given time range, as flat DTOs.
+     *
+     * @param fromUserId the lowest user ID (inclusive).
+     * @param toUserId   the highest user ID (inclusive).
+     * @param from       the earliest end time (inclusive).
+     * @param to         the latest end time (exclusive).
+     * @return a list of training DTOs ordered by user ID.
+     */
+    @Override
+    public List<TrainingDTO> getTrainingDtosOfUsersEndedBetween(Long fromUserId, Long toUserId, Date from, Date to) {
+        return trainingRepository.findDtosByUserIdBetweenAndEndTimeBetween(fromUserId, toUserId, from, to);
+    }
+
     /**
      * Retrieves trainings by activity type.
      *
@@ -55,6 +182,17 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findByActivityType(activityType);
     }
 
+    /**
+     * Retrieves trainings by activity type as flat DTOs, without loading their users.
+     *
+     * @param activityType the activity type to filter by.
+     * @return a list of training DTOs with the specified activity type.
+     */
+    @Override
+    public List<TrainingDTO> getTrainingDtosByActivityType(ActivityType activityType) {
+        return trainingRepository.findDtosByActivityType(activityType);
+    }
+
     /**
      * Retrieves all finished trainings after a specified time.
      *
@@ -66,22 +204,132 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findByEndTimeAfter(afterTime);
     }
 
+    /**
+     * Retrieves all finished trainings after a specified time as flat DTOs, without loading their users.
+     *
+     * @param afterTime the time to filter finished trainings by.
+     * @return a list of finished training DTOs after the specified time.
+     */
+    @Override
+    public List<TrainingDTO> getFinishedTrainingDtosAfter(Date afterTime) {
+        return trainingRepository.findDtosByEndTimeAfter(afterTime);
+    }
+
+    /**
+     * Retrieves a page of the trainings that ended within a time range, ordered by end time and ID.
+     *
+     * @param userId the ID of the user whose trainings are retrieved, or null for the trainings of all users.
+     * @param from the earliest end time (inclusive), or the end time of the last training of the previous page.
+     * @param to the latest end time (exclusive).
+     * @param afterId the ID of the last training of the previous page, or null for the first page.
+     * @param limit the maximum number of trainings to return.
+     * @return a list of trainings ordered by end time and ID.
+     */
+    @Override
+    public List<Training> getFinishedTrainingsPage(@Nullable Long userId, Date from, Date to, @Nullable Long afterId, int limit) {
+        if (!from.before(to)) {
+            throw new BusinessException("Range start %s must be before range end %s".formatted(from.toInstant(), to.toInstant()));
+        }
+        long lastId = afterId == null ? 0 : afterId;
+        if (userId == null) {
+            return trainingRepository.findPageEndedBetween(from, to, lastId, Limit.of(limit));
+        }
+        return trainingRepository.findPageByUserIdEndedBetween(userId, from, to, lastId, Limit.of(limit));
+    }
+
     /**
      * Creates a new training.
+     * The user is looked up through the {@link UserProvider}, so repeated trainings of the same user are served from its cache,
+     * and the training refers to the user through a reference to its ID instead of a loaded entity.
      *
-     * @param training the training to create.
+     * @param trainingDto the training to create.
      * @return the created training.
-     * @throws RuntimeException if the user associated with the training is not found.
+     * @throws UserNotFoundException if the user associated with the training is not found.
+     * @throws BusinessException if the training data is incomplete.
+     */
+    @Override
+    @Transactional
+    public Training createTraining(TrainingDTO trainingDto) {
+        UserDto user = Optional.ofNullable(trainingDto.getUserId())
+                .flatMap(userProvider::getUser)
+                .orElseThrow(() -> new UserNotFoundException(trainingDto.getUserId()));
+        validationError(trainingDto).ifPresent(error -> {
+            throw new BusinessException(error);
+        });
+        Training training = trainingRepository.save(trainingMapper.toEntity(trainingDto, entityManager.getReference(User.class, user.id())));
+        eventPublisher.publishEvent(new TrainingSavedEvent(null, TrainingSnapshot.of(training)));
+        resourceVersions.changed(VersionedResource.TRAININGS, user.id());
+        return training;
+    }
+
+    /**
+     * Creates a batch of trainings in a single transaction.
+     * Users of all trainings are validated with a single query, and the trainings are inserted
+     * with JDBC batching in chunks of {@link #INSERT_CHUNK_SIZE}, clearing the persistence context after every chunk.
+     * Invalid items are rejected without affecting the others.
+     * The created trainings are announced by a single {@link TrainingBatchSavedEvent} once all of them are flushed,
+     * so the derived statistics and rollups are written once per user and bucket, not once per training.
+     *
+     * @param trainingDtos the trainings to create.
+     * @return the outcome of every item, in the order of the given trainings.
+     * @throws BusinessException if the batch is larger than {@link #MAX_BATCH_SIZE}.
      */
     @Override
-    public Training createTraining(Training training) {
-        Optional<User> user = userRepository.findById(training.getUser().getId());
-        if (user.isPresent()) {
-            training.setUser(user.get());
-            return trainingRepository.save(training);
-        } else {
-            throw new RuntimeException("User not found");
+    @Transactional
+    public List<TrainingBatchItemResult> createTrainings(List<TrainingDTO> trainingDtos) {
+        if (trainingDtos.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("Batch of %s trainings exceeds the limit of %s".formatted(trainingDtos.size(), MAX_BATCH_SIZE));
         }
+        Set<Long> userIds = trainingDtos.stream()
+                .map(TrainingDTO::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<TrainingBatchItemResult> results = new ArrayList<>(trainingDtos.size());
+        List<TrainingSavedEvent> savedTrainings = new ArrayList<>(trainingDtos.size());
+        Set<Long> changedUserIds = new HashSet<>();
+        int pendingInserts = 0;
+        for (int index = 0; index < trainingDtos.size(); index++) {
+            TrainingDTO trainingDto = trainingDtos.get(index);
+            User user = trainingDto.getUserId() == null ? null : users.get(trainingDto.getUserId());
+            if (user == null) {
+                results.add(TrainingBatchItemResult.rejected(index, "User with ID=%s was not found".formatted(trainingDto.getUserId())));
+                continue;
+            }
+            Optional<String> error = validationError(trainingDto);
+            if (error.isPresent()) {
+                results.add(TrainingBatchItemResult.rejected(index, error.get()));
+                continue;
+            }
+            Training training = trainingRepository.save(trainingMapper.toEntity(trainingDto, user));
+            savedTrainings.add(new TrainingSavedEvent(null, TrainingSnapshot.of(training)));
+            results.add(TrainingBatchItemResult.created(index, training.getId()));
+            changedUserIds.add(user.getId());
+            if (++pendingInserts == INSERT_CHUNK_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingInserts = 0;
+            }
+        }
+        entityManager.flush();
+        if (!savedTrainings.isEmpty()) {
+            eventPublisher.publishEvent(new TrainingBatchSavedEvent(savedTrainings));
+        }
+        changedUserIds.forEach(userId -> resourceVersions.changed(VersionedResource.TRAININGS, userId));
+        return results;
+    }
+
+    private static Optional<String> validationError(TrainingDTO trainingDto) {
+        if (trainingDto.getStartTime() == null || trainingDto.getEndTime() == null || trainingDto.getActivityType() == null) {
+            return Optional.of("startTime, endTime and activityType are required");
+        }
+        if (trainingDto.getEndTime().before(trainingDto.getStartTime())) {
+            return Optional.of("endTime must not be before startTime");
+        }
+        return Optional.empty();
     }
 
     /**
@@ -91,16 +339,77 @@ public class TrainingServiceImpl implements TrainingService {
      * @param updatedTraining the updated training data.
      * @return the updated training.
      * @throws RuntimeException if the training with the specified ID is not found.
+     * @throws ConflictException if the training was modified concurrently.
      */
     @Override
+    @Transactional
     public Training updateTraining(Long trainingId, Training updatedTraining) {
         Training training = trainingRepository.findById(trainingId)
                 .orElseThrow(() -> new RuntimeException("Training not found"));
+        TrainingSnapshot previous = TrainingSnapshot.of(training);
         training.setStartTime(updatedTraining.getStartTime());
         training.setEndTime(updatedTraining.getEndTime());
         training.setActivityType(updatedTraining.getActivityType());
         training.setDistance(updatedTraining.getDistance());
         training.setAverageSpeed(updatedTraining.getAverageSpeed());
-        return trainingRepository.save(training);
+        Training savedTraining = trainingRepository.save(training);
+        flushChanges(trainingId);
+        eventPublisher.publishEvent(new TrainingSavedEvent(previous, TrainingSnapshot.of(savedTraining)));
+        resourceVersions.changed(VersionedResource.TRAININGS, savedTraining.getUser().getId());
+        return savedTraining;
+    }
+
+    /**
+     * Changes the given attributes of an existing training.
+     * The training is read first, for the previous state needed by the {@link TrainingSavedEvent} and to check the version
+     * and that the changed training would not end before it starts. The changes are then written by a single update
+     * of the changed columns only, conditioned on the version that was read, which also increments the version.
+     *
+     * @param trainingId the ID of the training to change.
+     * @param patch the attributes to change and the version they are based on.
+     * @return the changed training, with its new version.
+     * @throws TrainingNotFoundException if the training with the specified ID is not found.
+     * @throws ConflictException if the training was modified since the version of the patch.
+     * @throws BusinessException if the version is missing, the patch changes no attribute or the changed training would end before it starts.
+     */
+    @Override
+    @Transactional
+    public Training patchTraining(Long trainingId, TrainingPatch patch) {
+        if (patch.version() == null) {
+            throw new BusinessException("version is required");
+        }
+        if (patch.changesNothing()) {
+            throw new BusinessException("at least one attribute to change is required");
+        }
+        Training training = trainingRepository.findById(trainingId).orElseThrow(() -> new TrainingNotFoundException(trainingId));
+        if (training.getVersion() != patch.version()) {
+            throw new ConflictException("Training with ID=%s is at version %s, the changes are based on version %s"
+                                                .formatted(trainingId, training.getVersion(), patch.version()));
+        }
+        Date startTime = Optional.ofNullable(patch.startTime()).orElse(training.getStartTime());
+        Date endTime = Optional.ofNullable(patch.endTime()).orElse(training.getEndTime());
+        if (endTime.before(startTime)) {
+            throw new BusinessException("endTime must not be before startTime");
+        }
+        TrainingSnapshot previous = TrainingSnapshot.of(training);
+        if (trainingRepository.updateChangedColumns(trainingId, patch.version(), patch) == 0) {
+            throw new ConflictException("Training with ID=%s was modified concurrently".formatted(trainingId));
+        }
+
+        Training patched = trainingRepository.findById(trainingId).orElseThrow(() -> new TrainingNotFoundException(trainingId));
+        eventPublisher.publishEvent(new TrainingSavedEvent(previous, TrainingSnapshot.of(patched)));
+        resourceVersions.changed(VersionedResource.TRAININGS, patched.getUser().getId());
+        return patched;
+    }
+
+    /**
+     * Writes the pending changes right away, so that a failed version check is reported as a conflict, not as a failed commit.
+     */
+    private void flushChanges(Long trainingId) {
+        try {
+            trainingRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Training with ID=%s was modified concurrently".formatted(trainingId));
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,10 +9,13 @@ import java.time.LocalDate;
 
 /**
  * Entity representing an User in the fitness tracker.
+ * A training created for a cached user refers to it through an uninitialized reference,
+ * so the properties of the Hibernate proxy are left out when such a training is rendered.
  */
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_birthdate", columnList = "birthdate"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -8,20 +8,23 @@ public interface UserProvider {
     /**
      * Retrieves a user based on their ID.
      * If the user with given ID is not found, then {@link Optional#empty()} will be returned.
+     * The user is returned as an immutable snapshot, which may be served from a cache;
+     * a relation to the user is to be set with a reference to its ID, not with an entity built from the snapshot.
      *
      * @param userId id of the user to be searched
      * @return An {@link Optional} containing the located user, or {@link Optional#empty()} if not found
      */
-    Optional<User> getUser(Long userId);
+    Optional<UserDto> getUser(Long userId);
 
     /**
      * Retrieves a user based on their email.
      * If the user with given email is not found, then {@link Optional#empty()} will be returned.
+     * Like {@link #getUser(Long)}, the user is returned as an immutable snapshot, which may be served from a cache.
      *
      * @param email The email of the user to be searched
      * @return An {@link Optional} containing the located user, or {@link Optional#empty()} if not found
      */
-    Optional<User> getUserByEmail(String email);
+    Optional<UserDto> getUserByEmail(String email);
 
     /**
      * Retrieves all users.
@@ -30,4 +33,11 @@ public interface UserProvider {
      */
     List<User> findAllUsers();
 
+    /**
+     * Counts all users.
+     *
+     * @return the number of users
+     */
+    long countUsers();
+
 }
@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import jakarta.annotation.Nullable;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,12 +11,14 @@ import java.util.List;
  
  public interface UserService {
      List<User> getAllUsers();
-     User getUserById(Long id) throws UserNotFoundException;
+     List<User> getUsersPage(@Nullable Long afterId, int limit);
+     List<UserSimpleDto> getSimpleUsersPage(@Nullable Long afterId, int limit);
+     UserDto getUserById(Long id) throws UserNotFoundException;
      User createUser(User user);
      User updateUser(Long id, User user) throws UserNotFoundException;
      void deleteUser(Long id) throws UserNotFoundException;
      List<User> searchUsersByEmail(String email);
-     List<User> searchUsersByAgeGreaterThan(int age);
-     List<User> findUsersOlderThan(LocalDate date);
+     List<User> searchUsersByAgeGreaterThan(int age, int offset, @Nullable Integer limit);
+     List<User> findUsersOlderThan(LocalDate date, int offset, @Nullable Integer limit);
  }
  
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Simplified view of the {@link User}, containing only the data needed to list users.
+ */
+public record UserSimpleDto(@Nullable Long id, String firstName, String lastName) {
+
+}
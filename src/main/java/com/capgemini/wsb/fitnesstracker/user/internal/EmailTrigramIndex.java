@@ -0,0 +1,238 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory trigram index over lowercased user emails, used to answer case-insensitive substring searches
+ * without scanning the whole {@code users} table.
+ * <p>
+ * Every email is split into overlapping three-character grams, and each gram keeps a sorted posting list of user ids.
+ * A query intersects the posting lists of the fragment's grams and only then verifies the remaining candidates
+ * against the indexed email. Fragments shorter than a trigram cannot be answered by the index.
+ * <p>
+ * The index is filled by {@link UserServiceImpl} once the application is ready and kept up to date by the writes going through it,
+ * each applied once its transaction commits.
+ * Until then, and while the index is rebuilt, every query falls back to the database. The writes made while the emails
+ * are loaded for a rebuild are recorded and applied on top of the loaded emails, so the rebuilt index does not lose them.
+ */
+@Component
+@Slf4j
+class EmailTrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> emailsById = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private volatile boolean ready;
+    @Nullable
+    private Map<Long, Optional<String>> writesDuringRebuild;
+
+    /**
+     * Replaces the whole content of the index with the emails supplied by the given source.
+     * The index is not used for queries until the rebuild completes.
+     *
+     * @param source loads the emails of all users, called without holding the lock of the index
+     */
+    void rebuild(Supplier<Collection<UserEmail>> source) {
+        Map<Long, Optional<String>> writes = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            writesDuringRebuild = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Collection<UserEmail> entries;
+        try {
+            entries = source.get();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            emailsById.clear();
+            postings.clear();
+            entries.forEach(entry -> add(entry.id(), entry.email()));
+            writes.forEach((userId, email) -> {
+                removeInternal(userId);
+                email.ifPresent(current -> add(userId, current));
+            });
+            writesDuringRebuild = null;
+            ready = true;
+            log.info("Email trigram index built for {} users, {} of them written meanwhile", emailsById.size(), writes.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the email of the given user, replacing any previously indexed email of that user.
+     *
+     * @param userId id of the user
+     * @param email  current email of the user
+     */
+    void put(Long userId, String email) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(userId);
+            add(userId, email);
+            recordDuringRebuild(userId, Optional.of(email));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the user from the index.
+     *
+     * @param userId id of the user
+     */
+    void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(userId);
+            recordDuringRebuild(userId, Optional.empty());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordDuringRebuild(Long userId, Optional<String> email) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(userId, email);
+        }
+    }
+
+    /**
+     * Finds ids of the users whose email contains the given fragment (case insensitive).
+     * If the index cannot answer the query (it is not built yet or the fragment is shorter than a trigram),
+     * then {@link Optional#empty()} is returned and the caller has to fall back to the database.
+     *
+     * @param emailFragment fragment of the email to search for
+     * @return ascending ids of the matching users, or {@link Optional#empty()} if the index cannot answer the query
+     */
+    Optional<long[]> findIdsContaining(String emailFragment) {
+        String fragment = emailFragment.toLowerCase(Locale.ROOT);
+        if (!ready || fragment.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[fragment.length() - GRAM_LENGTH + 1];
+            for (int i = 0; i < lists.length; i++) {
+                PostingList list = postings.get(gramAt(fragment, i));
+                if (list == null) {
+                    return Optional.of(new long[0]);
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+
+            long[] matches = new long[lists[0].size];
+            int count = 0;
+            for (int i = 0; i < lists[0].size; i++) {
+                long candidate = lists[0].ids[i];
+                if (containedInAll(lists, candidate) && emailsById.get(candidate).contains(fragment)) {
+                    matches[count++] = candidate;
+                }
+            }
+            return Optional.of(Arrays.copyOf(matches, count));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containedInAll(PostingList[] lists, long candidate) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Long userId, String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        emailsById.put(userId, normalized);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            postings.computeIfAbsent(gramAt(normalized, i), gram -> new PostingList()).add(userId);
+        }
+    }
+
+    private void removeInternal(Long userId) {
+        String previous = emailsById.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= previous.length(); i++) {
+            long gram = gramAt(previous, i);
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(userId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static long gramAt(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    /**
+     * Sorted, duplicate-free list of user ids backed by a primitive array.
+     * User ids grow monotonically, so inserts are almost always appends.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -1,19 +1,29 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.KeysetPagination;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
 import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import com.capgemini.wsb.fitnesstracker.versioning.api.ResourceVersions;
+import com.capgemini.wsb.fitnesstracker.versioning.api.VersionedResource;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * REST controller for managing users.
+ * The user and the user collections carry strong ETags derived from the {@link ResourceVersions}, and a request whose
+ * {@code If-None-Match} header still matches is answered with 304 before the user is read.
  */
 @RestController
 @RequestMapping("/v1/users")
@@ -22,46 +32,68 @@ class UserController {
 
     private final UserService userService;
     private final UserMapper userMapper;
+    private final ResourceVersions resourceVersions;
 
     /**
-     * Retrieves all users.
+     * Retrieves a page of users ordered by ID.
+     * If there are more users, the response contains a {@code Link} header pointing to the next page.
      *
+     * @param cursor the cursor of the page to retrieve, taken from the {@code Link} header of the previous page.
+     * @param size the maximum number of users in the page.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
      * @return a ResponseEntity containing a list of UserDto.
      */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers()
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) @Positive Integer size,
+                                                     WebRequest request) {
+        if (request.checkNotModified(resourceVersions.collectionETag(VersionedResource.USER))) {
+            return null;
+        }
+        int pageSize = KeysetPagination.pageSize(size);
+        return KeysetPagination.toResponse(userService.getUsersPage(afterId(cursor), pageSize + 1),
+                                           pageSize,
+                                           UserController::cursorOf,
+                                           userMapper::toDto);
     }
 
     /**
-     * Retrieves all users in a simplified format.
+     * Retrieves a page of users in a simplified format.
+     * If there are more users, the response contains a {@code Link} header pointing to the next page.
      *
-     * @return a ResponseEntity containing a list of UserDto.
+     * @param cursor the cursor of the page to retrieve, taken from the {@code Link} header of the previous page.
+     * @param size the maximum number of users in the page.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
+     * @return a ResponseEntity containing a list of UserSimpleDto.
      */
     @GetMapping("/simple")
-    public ResponseEntity<List<UserDto>> getAllSimpleUsers() {
-        List<UserDto> users = userService.getAllUsers()
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSimpleDto>> getAllSimpleUsers(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) @Positive Integer size,
+                                                                 WebRequest request) {
+        if (request.checkNotModified(resourceVersions.collectionETag(VersionedResource.USER))) {
+            return null;
+        }
+        int pageSize = KeysetPagination.pageSize(size);
+        return KeysetPagination.toResponse(userService.getSimpleUsersPage(afterId(cursor), pageSize + 1),
+                                           pageSize,
+                                           user -> KeysetPagination.encodeCursor(user.id()),
+                                           Function.identity());
     }
 
     /**
      * Retrieves a user by their ID.
      *
      * @param id the ID of the user to retrieve.
-     * @return a ResponseEntity containing the UserDto if found, or 404 if not found.
+     * @param request the request, checked for a matching {@code If-None-Match} header.
+     * @return a ResponseEntity containing the UserDto if found, 304 if not modified, or 404 if not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(resourceVersions.eTag(VersionedResource.USER, id))) {
+            return null;
+        }
         try {
-            UserDto userDto = userMapper.toDto(userService.getUserById(id));
-            return ResponseEntity.ok(userDto);
+            return ResponseEntity.ok(userService.getUserById(id));
         } catch (UserNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -143,14 +175,18 @@ class UserController {
     }
 
     /**
-     * Searches for users older than a specified age.
+     * Searches for users older than a specified age, oldest first.
      *
      * @param age the age to compare against.
+     * @param offset the number of matching users to skip.
+     * @param limit the maximum number of users to return, all matching users if absent.
      * @return a ResponseEntity containing a list of UserDto.
      */
     @GetMapping("/search/age")
-    public ResponseEntity<List<UserDto>> searchUsersByAge(@RequestParam int age) {
-        List<UserDto> users = userService.searchUsersByAgeGreaterThan(age)
+    public ResponseEntity<List<UserDto>> searchUsersByAge(@RequestParam int age,
+                                                          @RequestParam(defaultValue = "0") @PositiveOrZero int offset,
+                                                          @RequestParam(required = false) @Positive Integer limit) {
+        List<UserDto> users = userService.searchUsersByAgeGreaterThan(age, offset, limit)
                 .stream()
                 .map(userMapper::toDto)
                 .collect(Collectors.toList());
@@ -158,18 +194,30 @@ class UserController {
     }
 
     /**
-     * Finds users older than a specified date.
+     * Finds users older than a specified date, oldest first.
      *
      * @param time the date to compare against.
+     * @param offset the number of matching users to skip.
+     * @param limit the maximum number of users to return, all matching users if absent.
      * @return a ResponseEntity containing a list of UserDto.
      */
     @GetMapping("/older/{time}")
-    public ResponseEntity<List<UserDto>> findUsersOlderThan(@PathVariable String time) {
+    public ResponseEntity<List<UserDto>> findUsersOlderThan(@PathVariable String time,
+                                                            @RequestParam(defaultValue = "0") @PositiveOrZero int offset,
+                                                            @RequestParam(required = false) @Positive Integer limit) {
         LocalDate date = LocalDate.parse(time);
-        List<UserDto> users = userService.findUsersOlderThan(date)
+        List<UserDto> users = userService.findUsersOlderThan(date, offset, limit)
                 .stream()
                 .map(userMapper::toDto)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(users);
     }
+
+    private static Long afterId(String cursor) {
+        return cursor == null ? null : KeysetPagination.decodeCursor(cursor, 1)[0];
+    }
+
+    private static String cursorOf(User user) {
+        return KeysetPagination.encodeCursor(user.getId());
+    }
 }
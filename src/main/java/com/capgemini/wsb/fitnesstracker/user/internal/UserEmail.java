@@ -0,0 +1,8 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+/**
+ * Projection of a {@link com.capgemini.wsb.fitnesstracker.user.api.User} onto its id and email only.
+ */
+public record UserEmail(Long id, String email) {
+
+}
@@ -1,29 +1,54 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.Objects;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Reads a page of users ordered by id, starting right after the given id (keyset pagination).
+     *
+     * @param id    id of the last user of the previous page
+     * @param limit maximum number of users to return
+     * @return List of users with id greater than the given one, ordered by id
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Reads a page of simplified users ordered by id, starting right after the given id (keyset pagination).
+     * Only the selected columns are read and no entities are created, so the persistence context stays empty.
+     *
+     * @param id    id of the last user of the previous page
+     * @param limit maximum number of users to return
+     * @return List of simplified users with id greater than the given one, ordered by id
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto(u.id, u.firstName, u.lastName)
+            from User u
+            where u.id > :id
+            order by u.id
+            """)
+    List<UserSimpleDto> findSimpleUsersAfter(Long id, Limit limit);
+
     /**
      * Query searching users by email address. It matches by exact match.
+     * Resolved by the database through the unique index on the {@code email} column.
      *
      * @param email email of the user to search
      * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
      */
-    default Optional<User> findByEmail(String email) {
-        return findAll().stream()
-                        .filter(user -> Objects.equals(user.getEmail(), email))
-                        .findFirst();
-    }
+    Optional<User> findByEmail(String email);
 
     /**
      * Query searching users by email address (case insensitive) containing a fragment of the email.
@@ -31,30 +56,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param emailFragment fragment of the email of the users to search
      * @return List of users matching the search criteria
      */
-    default List<User> findByEmailContainingIgnoreCase(String emailFragment) {
-        return findAll().stream()
-                        .filter(user -> user.getEmail().toLowerCase().contains(emailFragment.toLowerCase()))
-                        .toList();
-    }
+    List<User> findByEmailContainingIgnoreCase(String emailFragment);
 
     /**
-     * Query searching users by age greater than a given age.
+     * Query returning the id and email of every user, without loading the entities.
      *
-     * @param age age to compare with user's age
-     * @return List of users older than the given age
+     * @return List of id and email pairs of all users
      */
-    default List<User> findByAgeGreaterThan(int age) {
-        LocalDate cutoffDate = LocalDate.now().minusYears(age);
-        return findAll().stream()
-                        .filter(user -> user.getBirthdate().isBefore(cutoffDate))
-                        .collect(Collectors.toList());
-    }
+    @Query("select new com.capgemini.wsb.fitnesstracker.user.internal.UserEmail(u.id, u.email) from User u")
+    List<UserEmail> findAllEmails();
 
     /**
-     * Finds users who were born before the specified date.
+     * Finds users who were born before the specified date, oldest first.
+     * Resolved as a range scan over the index on the {@code birthdate} column.
      *
-     * @param date the date to compare against.
-     * @return a list of users who were born before the specified date.
+     * @param date     the date to compare against.
+     * @param position offset of the first user to return.
+     * @param limit    maximum number of users to return.
+     * @return a window of users who were born before the specified date.
      */
-    List<User> findByBirthdateBefore(LocalDate date);
+    Window<User> findByBirthdateBeforeOrderByBirthdateAscIdAsc(LocalDate date, OffsetScrollPosition position, Limit limit);
 }
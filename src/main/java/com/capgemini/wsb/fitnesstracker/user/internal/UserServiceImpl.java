@@ -1,22 +1,63 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
 import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import com.capgemini.wsb.fitnesstracker.versioning.api.ResourceVersions;
+import com.capgemini.wsb.fitnesstracker.versioning.api.VersionedResource;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.LongStream;
 
 /**
  * Service implementation for managing users.
+ * Lookups of single users by ID and by email are cached as immutable {@link UserDto} snapshots, never as the mutable entities, in the {@value #USERS_CACHE} and {@value #USERS_BY_EMAIL_CACHE} caches
+ * (bounded in size and time by the {@code spring.cache.caffeine.spec} property), and evicted by every update and delete going through this service,
+ * once when the change is written and once more when its transaction completes, so that a lookup running concurrently with the write
+ * cannot keep the previous state cached.
+ * Every write also bumps the {@link ResourceVersions} of the user, and of its trainings, which embed the user,
+ * and is applied to the {@link EmailTrigramIndex} once its transaction commits.
  */
 @Service
 @RequiredArgsConstructor
-class UserServiceImpl implements UserService {
+class UserServiceImpl implements UserService, UserProvider {
+
+    static final String USERS_CACHE = "users";
+    static final String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
     private final UserRepository userRepository;
+    private final EmailTrigramIndex emailTrigramIndex;
+    private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    private final ResourceVersions resourceVersions;
+
+    /**
+     * Fills the email search index with the users already stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildEmailIndex() {
+        emailTrigramIndex.rebuild(userRepository::findAllEmails);
+    }
 
     /**
      * Retrieves all users.
@@ -28,6 +69,30 @@ class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of users ordered by ID.
+     *
+     * @param afterId the ID of the last user of the previous page, or null for the first page.
+     * @param limit   the maximum number of users to return.
+     * @return a list of users with IDs greater than the given one.
+     */
+    @Override
+    public List<User> getUsersPage(@Nullable Long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? Long.MIN_VALUE : afterId, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a page of simplified users ordered by ID.
+     *
+     * @param afterId the ID of the last user of the previous page, or null for the first page.
+     * @param limit   the maximum number of users to return.
+     * @return a list of simplified users with IDs greater than the given one.
+     */
+    @Override
+    public List<UserSimpleDto> getSimpleUsersPage(@Nullable Long afterId, int limit) {
+        return userRepository.findSimpleUsersAfter(afterId == null ? Long.MIN_VALUE : afterId, Limit.of(limit));
+    }
+
     /**
      * Retrieves a user by their ID.
      *
@@ -36,11 +101,57 @@ class UserServiceImpl implements UserService {
      * @throws UserNotFoundException if the user with the specified ID is not found.
      */
     @Override
-    public User getUserById(Long id) throws UserNotFoundException {
+    @Cacheable(USERS_CACHE)
+    public UserDto getUserById(Long id) throws UserNotFoundException {
         return userRepository.findById(id)
+                .map(userMapper::toDto)
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
+    /**
+     * Retrieves a user by their ID.
+     *
+     * @param userId the ID of the user to retrieve.
+     * @return an Optional containing the user, or empty if not found.
+     */
+    @Override
+    @Cacheable(value = USERS_CACHE, unless = "#result == null")
+    public Optional<UserDto> getUser(Long userId) {
+        return userRepository.findById(userId).map(userMapper::toDto);
+    }
+
+    /**
+     * Retrieves a user by their exact email address.
+     *
+     * @param email the email of the user to retrieve.
+     * @return an Optional containing the user, or empty if not found.
+     */
+    @Override
+    @Cacheable(value = USERS_BY_EMAIL_CACHE, unless = "#result == null")
+    public Optional<UserDto> getUserByEmail(String email) {
+        return userRepository.findByEmail(email).map(userMapper::toDto);
+    }
+
+    /**
+     * Retrieves all users.
+     *
+     * @return a list of all users.
+     */
+    @Override
+    public List<User> findAllUsers() {
+        return userRepository.findAll();
+    }
+
+    /**
+     * Counts all users.
+     *
+     * @return the number of users.
+     */
+    @Override
+    public long countUsers() {
+        return userRepository.count();
+    }
+
     /**
      * Creates a new user.
      *
@@ -49,7 +160,12 @@ class UserServiceImpl implements UserService {
      */
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User created = userRepository.save(user);
+        Long id = created.getId();
+        String email = created.getEmail();
+        afterCommit(() -> emailTrigramIndex.put(id, email));
+        resourceVersions.changed(VersionedResource.USER, id);
+        return created;
     }
 
     /**
@@ -61,12 +177,20 @@ class UserServiceImpl implements UserService {
      * @throws UserNotFoundException if the user with the specified ID is not found.
      */
     @Override
+    @Transactional
     public User updateUser(Long id, User user) throws UserNotFoundException {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException(id);
-        }
+        User previous = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        String previousEmail = previous.getEmail();
         user.setId(id);
-        return userRepository.save(user);
+        User updated = userRepository.save(user);
+        evict(id, previousEmail);
+        String email = updated.getEmail();
+        if (!Objects.equals(previousEmail, email)) {
+            evict(id, email);
+        }
+        afterCommit(() -> emailTrigramIndex.put(id, email));
+        userChanged(id);
+        return updated;
     }
 
     /**
@@ -76,43 +200,110 @@ class UserServiceImpl implements UserService {
      * @throws UserNotFoundException if the user with the specified ID is not found.
      */
     @Override
+    @Transactional
     public void deleteUser(Long id) throws UserNotFoundException {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException(id);
+        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        userRepository.delete(user);
+        evict(id, user.getEmail());
+        afterCommit(() -> emailTrigramIndex.remove(id));
+        userChanged(id);
+    }
+
+    private void userChanged(Long id) {
+        resourceVersions.changed(VersionedResource.USER, id);
+        resourceVersions.changed(VersionedResource.TRAININGS, id);
+    }
+
+    /**
+     * Evicts the cached lookups of the user right away, and again after the transaction completes:
+     * until the change is committed, a concurrent lookup still reads the previous state and may cache it again.
+     */
+    private void evict(Long id, String email) {
+        Runnable eviction = () -> {
+            Objects.requireNonNull(cacheManager.getCache(USERS_CACHE)).evict(id);
+            Objects.requireNonNull(cacheManager.getCache(USERS_BY_EMAIL_CACHE)).evict(email);
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the given update of the email search index once the current transaction commits, or right away outside of a transaction,
+     * so that a write which is rolled back never becomes searchable.
+     */
+    private static void afterCommit(Runnable indexUpdate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexUpdate.run();
+                }
+            });
+        } else {
+            indexUpdate.run();
         }
-        userRepository.deleteById(id);
     }
 
     /**
      * Searches for users by email.
+     * The search is answered by the {@link EmailTrigramIndex} whenever possible and falls back to the database otherwise.
      *
      * @param email the email to search for.
      * @return a list of users with emails containing the specified email.
      */
     @Override
     public List<User> searchUsersByEmail(String email) {
-        return userRepository.findByEmailContainingIgnoreCase(email);
+        return emailTrigramIndex.findIdsContaining(email)
+                .map(ids -> loadUsersContainingEmail(ids, email))
+                .orElseGet(() -> userRepository.findByEmailContainingIgnoreCase(email));
+    }
+
+    private List<User> loadUsersContainingEmail(long[] ids, String email) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        String fragment = email.toLowerCase(Locale.ROOT);
+        return userRepository.findAllById(LongStream.of(ids).boxed().toList())
+                .stream()
+                .filter(user -> user.getEmail().toLowerCase(Locale.ROOT).contains(fragment))
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
     }
     
     /**
-     * Searches for users older than a specified age.
+     * Searches for users older than a specified age, oldest first.
      *
-     * @param age the age to compare against.
+     * @param age    the age to compare against.
+     * @param offset the number of matching users to skip.
+     * @param limit  the maximum number of users to return, or null for no limit.
      * @return a list of users whose age is greater than the specified value.
      */
     @Override
-    public List<User> searchUsersByAgeGreaterThan(int age) {
-        return userRepository.findByAgeGreaterThan(age);
+    public List<User> searchUsersByAgeGreaterThan(int age, int offset, @Nullable Integer limit) {
+        return findUsersOlderThan(LocalDate.now().minusYears(age), offset, limit);
     }
 
     /**
-     * Finds users older than a specified date.
+     * Finds users older than a specified date, oldest first.
      *
-     * @param date the date to compare against.
+     * @param date   the date to compare against.
+     * @param offset the number of matching users to skip.
+     * @param limit  the maximum number of users to return, or null for no limit.
      * @return a list of users who were born before the specified date.
      */
     @Override
-    public List<User> findUsersOlderThan(LocalDate date) {
-        return userRepository.findByBirthdateBefore(date);
+    public List<User> findUsersOlderThan(LocalDate date, int offset, @Nullable Integer limit) {
+        return userRepository.findByBirthdateBeforeOrderByBirthdateAscIdAsc(
+                        date,
+                        ScrollPosition.offset(offset),
+                        limit == null ? Limit.unlimited() : Limit.of(limit))
+                .getContent();
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.versioning.api;
+
+/**
+ * Version counters of the resources, used to derive strong ETags that let the controllers answer a conditional {@code GET}
+ * with {@code 304 Not Modified} before reading the repository.
+ * <p>
+ * The counters are bumped by the services on every write, and only after the write commits, so a tag is never paired with
+ * uncommitted data. A tag has to be taken before the data is read: a write committing in between then only costs an extra full response.
+ * The counters are kept in memory of a single application instance, and every tag carries the start of that instance,
+ * so tags issued before a restart never match.
+ */
+public interface ResourceVersions {
+
+    /**
+     * Gets the strong ETag of the resource of a single user.
+     *
+     * @param resource the kind of the resource
+     * @param userId   the ID of the user
+     * @return the quoted ETag
+     */
+    String eTag(VersionedResource resource, Long userId);
+
+    /**
+     * Gets the strong ETag of the collection of the resources of all users.
+     *
+     * @param resource the kind of the resource
+     * @return the quoted ETag
+     */
+    String collectionETag(VersionedResource resource);
+
+    /**
+     * Bumps the versions of the resource of the user and of the whole collection, once the current transaction commits
+     * (immediately, if there is no transaction).
+     *
+     * @param resource the kind of the resource
+     * @param userId   the ID of the user
+     */
+    void changed(VersionedResource resource, Long userId);
+
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.versioning.api;
+
+/**
+ * Kinds of resources whose changes are counted by the {@link ResourceVersions}.
+ */
+public enum VersionedResource {
+
+    /**
+     * A single user and the collection of all users.
+     */
+    USER,
+
+    /**
+     * The trainings of a single user and the collection of all trainings.
+     * The trainings embed their users, so a change of a user changes its trainings too.
+     */
+    TRAININGS
+}
@@ -0,0 +1,76 @@
+package com.capgemini.wsb.fitnesstracker.versioning.internal;
+
+import com.capgemini.wsb.fitnesstracker.versioning.api.ResourceVersions;
+import com.capgemini.wsb.fitnesstracker.versioning.api.VersionedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the version counters in memory, without any entry per user: the users are spread over {@value #STRIPES} counters by their IDs.
+ * A write to one user bumps the version of every user sharing its stripe, which only costs those users an extra full response,
+ * while the memory stays bounded whatever the number of users.
+ */
+@Component
+class ResourceVersionsImpl implements ResourceVersions {
+
+    static final int STRIPES = 1 << 14;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+    private final Map<VersionedResource, Versions> versions = new EnumMap<>(VersionedResource.class);
+
+    ResourceVersionsImpl() {
+        for (VersionedResource resource : VersionedResource.values()) {
+            versions.put(resource, new Versions());
+        }
+    }
+
+    @Override
+    public String eTag(VersionedResource resource, Long userId) {
+        return eTag(versions.get(resource).ofUsers.get(stripeOf(userId)));
+    }
+
+    @Override
+    public String collectionETag(VersionedResource resource) {
+        return eTag(versions.get(resource).ofCollection.get());
+    }
+
+    @Override
+    public void changed(VersionedResource resource, Long userId) {
+        Versions changed = versions.get(resource);
+        Runnable bump = () -> {
+            changed.ofUsers.incrementAndGet(stripeOf(userId));
+            changed.ofCollection.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+
+    private String eTag(long version) {
+        return "\"%s-%d\"".formatted(instance, version);
+    }
+
+    private static int stripeOf(Long userId) {
+        return (int) Math.floorMod(userId, (long) STRIPES);
+    }
+
+    private static final class Versions {
+
+        private final AtomicLongArray ofUsers = new AtomicLongArray(STRIPES);
+        private final AtomicLong ofCollection = new AtomicLong();
+    }
+}
@@ -1,5 +1,8 @@
 package com.capgemini.wsb.fitnesstracker;
 
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import org.junit.Before;
@@ -21,8 +24,20 @@ public abstract class IntegrationTestBase {
     @Autowired
     private JpaRepository<Training, Long> trainingRepository;
 
+    @Autowired
+    private JpaRepository<Statistics, Long> statisticsRepository;
+
+    @Autowired
+    private JpaRepository<TrainingRollup, Long> trainingRollupRepository;
+
+    @Autowired
+    private JpaRepository<Achievement, Long> achievementRepository;
+
     @AfterEach
     void cleanUpDB() {
+        achievementRepository.deleteAll();
+        trainingRollupRepository.deleteAll();
+        statisticsRepository.deleteAll();
         trainingRepository.deleteAll();
         userRepository.deleteAll();
 
@@ -30,6 +45,9 @@ public abstract class IntegrationTestBase {
 
     @Before
     public void setUp() {
+        achievementRepository.deleteAll();
+        trainingRollupRepository.deleteAll();
+        statisticsRepository.deleteAll();
         trainingRepository.deleteAll();
         userRepository.deleteAll();
 
@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.achievement;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Achievements are evaluated after the training write commits, so the tests run without a test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class AchievementApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldAwardFirst10kRunOnce() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        String shortRun = createTraining(user1, "2024-04-01", "RUNNING", 9.5);
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(shortRun, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.5, "averageSpeed": 10.5}
+                        """))
+                .andExpect(status().isOk());
+        createTraining(user1, "2024-04-08", "RUNNING", 12.0);
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("FIRST_10K_RUN"))
+                .andExpect(jsonPath("$[0].period").value(""));
+    }
+
+    @Test
+    void shouldAwardMonthlyCyclingDistance_perMonth() throws Exception {
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+
+        createTraining(user1, "2024-04-03", "CYCLING", 60.0);
+        createTraining(user2, "2024-04-04", "CYCLING", 60.0);
+        createTraining(user1, "2024-05-01", "CYCLING", 60.0);
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        createTraining(user1, "2024-04-28", "CYCLING", 45.0);
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("CYCLED_100K_IN_MONTH"))
+                .andExpect(jsonPath("$[0].period").value("2024-04"));
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private String createTraining(User user, String day, String activityType, double distance) throws Exception {
+        return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "%s", "distance": %s, "averageSpeed": %s}
+                        """.formatted(user.getId(), day, day, activityType, distance, distance)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
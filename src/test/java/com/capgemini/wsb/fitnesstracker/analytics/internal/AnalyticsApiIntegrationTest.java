@@ -0,0 +1,165 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.SplittableRandom;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Training writes reach the analytics store after their transaction commits, so the tests run without a test transaction.
+ * The store is shared by all tests of the application context, so every test aggregates the trainings of its own users only.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class AnalyticsApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldAggregateTrainingsPerActivityType_withinTimeRange() throws Exception {
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+
+        createTraining(user1, "2024-04-10", "RUNNING", 10.0);
+        createTraining(user1, "2024-04-12", "RUNNING", 6.0);
+        createTraining(user1, "2024-04-15", "CYCLING", 40.0);
+        createTraining(user1, "2024-05-15", "RUNNING", 21.0);
+        createTraining(user2, "2024-04-11", "RUNNING", 5.0);
+
+        mockMvc.perform(get("/v1/analytics/trainings")
+                                .param("from", "2024-04-01T00:00:00Z")
+                                .param("to", "2024-05-01T00:00:00Z")
+                                .param("userId", user1.getId().toString()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(16.0))
+                .andExpect(jsonPath("$[0].averageDistance").value(8.0))
+                .andExpect(jsonPath("$[0].totalDurationSeconds").value(7200))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].trainings").value(1));
+    }
+
+    @Test
+    void shouldApplyTrainingUpdates() throws Exception {
+        User user1 = existingUser(generateClient());
+        String created = createTraining(user1, "2024-04-10", "RUNNING", 10.0);
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(created, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "2024-04-10T10:00:00", "endTime": "2024-04-10T11:30:00", "activityType": "WALKING", "distance": 7.5, "averageSpeed": 5.0}
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/analytics/trainings")
+                                .param("from", "2024-04-01T00:00:00Z")
+                                .param("to", "2024-05-01T00:00:00Z")
+                                .param("userId", user1.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].activityType").value("WALKING"))
+                .andExpect(jsonPath("$[0].totalDistance").value(7.5))
+                .andExpect(jsonPath("$[0].averageSpeed").value(5.0))
+                .andExpect(jsonPath("$[0].totalDurationSeconds").value(5400));
+    }
+
+    @Test
+    void shouldLoadTrainingsWrittenDirectlyToDatabase_whenRebuilt() throws Exception {
+        User user1 = existingUser(generateClient());
+        persistTraining(new Training(user1,
+                                     Date.from(Instant.parse("2024-04-10T10:00:00Z")),
+                                     Date.from(Instant.parse("2024-04-10T11:00:00Z")),
+                                     ActivityType.SWIMMING,
+                                     2.0,
+                                     2.0));
+
+        mockMvc.perform(get("/v1/analytics/trainings")
+                                .param("from", "2024-04-01T00:00:00Z")
+                                .param("to", "2024-05-01T00:00:00Z")
+                                .param("userId", user1.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(post("/v1/analytics/rebuild")).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/analytics/trainings")
+                                .param("from", "2024-04-01T00:00:00Z")
+                                .param("to", "2024-05-01T00:00:00Z")
+                                .param("userId", user1.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].activityType").value("SWIMMING"));
+    }
+
+    @Test
+    void shouldRejectReversedTimeRange() throws Exception {
+        mockMvc.perform(get("/v1/analytics/trainings")
+                                .param("from", "2024-05-01T00:00:00Z")
+                                .param("to", "2024-04-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldScanLargeStoreInParallelSegments_withSameResultAsSingleLoop() {
+        ColumnarTrainingStore store = new ColumnarTrainingStore();
+        SplittableRandom random = new SplittableRandom(7);
+        int rows = ColumnarTrainingStore.SEGMENT_ROWS * 3 + 123;
+        long from = Instant.parse("2024-03-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2024-06-01T00:00:00Z").toEpochMilli();
+        long expectedTrainings = 0;
+        double expectedDistance = 0;
+        for (int i = 0; i < rows; i++) {
+            Instant start = Instant.parse("2024-01-01T00:00:00Z").plusSeconds(random.nextLong(365L * 24 * 3600));
+            double distance = random.nextInt(1, 100);
+            store.put(new TrainingSnapshot((long) (i ^ 1), 1L, start, start.plusSeconds(3600), ActivityType.RUNNING, distance, 10));
+            if (start.toEpochMilli() >= from && start.toEpochMilli() < to) {
+                expectedTrainings++;
+                expectedDistance += distance;
+            }
+        }
+
+        ColumnarTrainingStore.ActivityTotals totals = store.aggregate(from, to, ColumnarTrainingStore.ANY_USER);
+
+        assertThat(store.size()).isEqualTo(rows);
+        assertThat(totals.trainings[ActivityType.RUNNING.ordinal()]).isEqualTo(expectedTrainings);
+        assertThat(totals.distance[ActivityType.RUNNING.ordinal()]).isCloseTo(expectedDistance, within(1e-6));
+        assertThat(totals.durationMillis[ActivityType.RUNNING.ordinal()]).isEqualTo(expectedTrainings * 3_600_000);
+    }
+
+    private String createTraining(User user, String day, String activityType, double distance) throws Exception {
+        return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "%s", "distance": %s, "averageSpeed": %s}
+                        """.formatted(user.getId(), day, day, activityType, distance, distance)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
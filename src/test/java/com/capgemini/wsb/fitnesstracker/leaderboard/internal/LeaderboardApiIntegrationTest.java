@@ -0,0 +1,159 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Training writes reach the leaderboards after their transaction commits, so the tests run without a test transaction.
+ * The leaderboards are shared by all tests of the application context, so every test writes to a week of the next year no other test uses.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class LeaderboardApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRankUsersByTotalDistance_withinPeriod() throws Exception {
+        LocalDate monday = unusedWeek(1);
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        User user3 = existingUser(generateClient());
+
+        createTraining(user1, monday, "CYCLING", 30.0);
+        createTraining(user2, monday.plusDays(1), "CYCLING", 25.0);
+        createTraining(user2, monday.plusDays(3), "CYCLING", 20.0);
+        createTraining(user3, monday.plusDays(2), "CYCLING", 10.0);
+        createTraining(user3, monday.plusDays(2), "RUNNING", 50.0);
+        createTraining(user3, monday.plusWeeks(1), "CYCLING", 100.0);
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "CYCLING")
+                                .param("period", "WEEK")
+                                .param("date", monday.plusDays(4).toString())
+                                .param("limit", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].userId").value(user2.getId()))
+                .andExpect(jsonPath("$[0].totalDistance").value(45.0))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[1].rank").value(2))
+                .andExpect(jsonPath("$[1].userId").value(user1.getId()));
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "CYCLING")
+                                .param("period", "DAY")
+                                .param("date", monday.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(user3.getId()))
+                .andExpect(jsonPath("$[0].totalDistance").value(10.0));
+    }
+
+    @Test
+    void shouldMoveUsers_whenTrainingsAreUpdated() throws Exception {
+        LocalDate monday = unusedWeek(3);
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        String created = createTraining(user1, monday, "SWIMMING", 3.0);
+        createTraining(user2, monday, "SWIMMING", 2.0);
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(created, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "SWIMMING", "distance": 1.5, "averageSpeed": 1.5}
+                        """.formatted(monday, monday)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "SWIMMING").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].userId").value(user2.getId()))
+                .andExpect(jsonPath("$[1].userId").value(user1.getId()))
+                .andExpect(jsonPath("$[1].totalDistance").value(1.5))
+                .andExpect(jsonPath("$[1].trainings").value(1));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(created, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "WALKING", "distance": 1.5, "averageSpeed": 1.5}
+                        """.formatted(monday, monday)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "SWIMMING").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(user2.getId()));
+    }
+
+    @Test
+    void shouldLoadTrainingsWrittenDirectlyToDatabase_whenRebuilt() throws Exception {
+        LocalDate monday = unusedWeek(5);
+        User user1 = existingUser(generateClient());
+        Date start = Date.from(monday.atTime(10, 0).toInstant(ZoneOffset.UTC));
+        persistTraining(new Training(user1, start, new Date(start.getTime() + 3_600_000), ActivityType.TENNIS, 4.0, 4.0));
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "TENNIS").param("period", "MONTH").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.userId == %d)]".formatted(user1.getId())).isEmpty());
+
+        mockMvc.perform(post("/v1/leaderboards/rebuild")).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "TENNIS").param("period", "MONTH").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.userId == %d)].totalDistance".formatted(user1.getId())).value(4.0));
+    }
+
+    @Test
+    void shouldNotTrackPeriodsOlderThanRetained() throws Exception {
+        LocalDate longAgo = now(ZoneOffset.UTC).minusYears(3);
+        User user1 = existingUser(generateClient());
+        createTraining(user1, longAgo, "RUNNING", 42.0);
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "RUNNING").param("date", longAgo.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldRejectLimitAboveMaximum() throws Exception {
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "RUNNING").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static LocalDate unusedWeek(int week) {
+        return RollupGranularity.WEEK.bucketStart(now(ZoneOffset.UTC).plusYears(1)).plusWeeks(week);
+    }
+
+    private String createTraining(User user, LocalDate day, String activityType, double distance) throws Exception {
+        return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "%s", "distance": %s, "averageSpeed": %s}
+                        """.formatted(user.getId(), day, day, activityType, distance, distance)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
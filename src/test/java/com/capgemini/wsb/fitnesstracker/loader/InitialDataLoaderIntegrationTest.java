@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The data is loaded once, when the application context starts, and removed after the test.
+ */
+@IntegrationTest
+@ActiveProfiles("loadInitialData")
+class InitialDataLoaderIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private JpaRepository<Training, Long> trainingRepository;
+
+    @Autowired
+    private JpaRepository<Statistics, Long> statisticsRepository;
+
+    @Autowired
+    private JpaRepository<TrainingRollup, Long> trainingRollupRepository;
+
+    @Test
+    void shouldBuildStatisticsAndRollupsOfLoadedTrainings() {
+        long trainings = trainingRepository.count();
+        assertThat(trainings).isPositive();
+
+        assertThat(statisticsRepository.findAll()).extracting(Statistics::getTotalTrainings)
+                .satisfies(totals -> assertThat(totals.stream().mapToInt(Integer::intValue).sum()).isEqualTo(trainings));
+        assertThat(trainingRollupRepository.findAll()).extracting(TrainingRollup::getTotalTrainings)
+                .satisfies(totals -> assertThat(totals.stream().mapToInt(Integer::intValue).sum()).isEqualTo(trainings * RollupGranularity.values().length));
+    }
+}
@@ -0,0 +1,68 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The data is generated once, when the application context starts, and removed after the test.
+ * The initial data profile, active by default, is active here too, to check that it does not add its sample data.
+ */
+@IntegrationTest
+@ActiveProfiles({"loadInitialData", "syntheticData"})
+@TestPropertySource(properties = {
+        "loader.synthetic.users=30",
+        "loader.synthetic.trainings=2000",
+        "loader.synthetic.chunk-size=300",
+        "loader.synthetic.batch-size=50",
+        "loader.synthetic.parallelism=3"
+})
+class SyntheticDataGeneratorIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private JpaRepository<User, Long> userRepository;
+
+    @Autowired
+    private JpaRepository<Training, Long> trainingRepository;
+
+    @Autowired
+    private JpaRepository<Statistics, Long> statisticsRepository;
+
+    @Test
+    void shouldGenerateConfiguredNumberOfRealisticTrainings() {
+        assertThat(userRepository.count()).isEqualTo(30);
+
+        List<Training> trainings = trainingRepository.findAll();
+        assertThat(trainings).hasSize(2000);
+        assertThat(trainings).extracting(Training::getActivityType).containsAll(List.of(ActivityType.values()));
+        assertThat(trainings).allSatisfy(training -> {
+            assertThat(training.getEndTime()).isAfter(training.getStartTime());
+            assertThat(training.getDistance()).isPositive();
+            assertThat(training.getAverageSpeed()).isPositive();
+        });
+
+        assertThat(statisticsRepository.findAll()).extracting(Statistics::getTotalTrainings)
+                .satisfies(totals -> assertThat(totals.stream().mapToInt(Integer::intValue).sum()).isEqualTo(2000));
+
+        User user = userRepository.findAll().get(0);
+
+        Training training = persistTraining(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 5, 10));
+
+        assertThat(trainingRepository.count()).isEqualTo(2001);
+        assertThat(trainingRepository.findById(training.getId())).hasValueSatisfying(
+                saved -> assertThat(saved.getUser().getId()).isEqualTo(user.getId()));
+    }
+}
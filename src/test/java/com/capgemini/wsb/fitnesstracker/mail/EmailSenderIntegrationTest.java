@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.mail;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+class EmailSenderIntegrationTest extends IntegrationTestBase {
+
+    private static final int EMAILS = 120;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldDeliverAllQueuedEmails_andRecordMetrics() throws Exception {
+        long sentBefore = sentEmails();
+
+        IntStream.range(0, EMAILS).forEach(i -> emailSender.send(new EmailDto("user" + i + "@domain.com", "Report " + i, "Content " + i)));
+
+        assertThat(greenMail.waitForIncomingEmail(Duration.ofSeconds(10).toMillis(), EMAILS)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(EMAILS);
+        List<String> subjects = new ArrayList<>();
+        for (MimeMessage message : received) {
+            assertThat(GreenMailUtil.getAddressList(message.getFrom())).isEqualTo("fitness-tracker@localhost");
+            subjects.add(message.getSubject());
+        }
+        assertThat(subjects).containsExactlyInAnyOrderElementsOf(IntStream.range(0, EMAILS).mapToObj(i -> "Report " + i).toList());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(sentEmails() - sentBefore).isEqualTo(EMAILS));
+        assertThat(meterRegistry.get("mail.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldNotBlockCaller_whenSmtpServerIsUnavailable() {
+        greenMail.stop();
+        long sentBefore = sentEmails();
+
+        long start = System.nanoTime();
+        IntStream.range(0, EMAILS).forEach(i -> emailSender.send(new EmailDto("user" + i + "@domain.com", "Report " + i, "Content " + i)));
+        Duration submitting = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(submitting).isLessThan(Duration.ofSeconds(1));
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(meterRegistry.get("mail.send").tag("outcome", "FAILURE").timer().count()).isPositive());
+        assertThat(sentEmails()).isEqualTo(sentBefore);
+    }
+
+    private long sentEmails() {
+        return meterRegistry.get("mail.send").tag("outcome", "SUCCESS").timer().count();
+    }
+}
@@ -0,0 +1,137 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesMeterFilter;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * HTTP metrics are recorded by a servlet filter, so the requests go through the whole filter chain.
+ */
+@IntegrationTest
+class MetricsIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PropertiesMeterFilter propertiesMeterFilter;
+
+    @Test
+    void shouldTagHttpRequestsWithEndpointStatusAndResultSize() throws Exception {
+        existingUser(generateUser());
+        existingUser(generateUser());
+
+        mockMvc.perform(get("/v1/users")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")
+                        .param("tag", "uri:/v1/users", "status:200", "result.size:2-10"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")
+                        .param("tag", "uri:/v1/users/{id}", "status:404"))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get("http.server.requests").tag("uri", "/v1/users").tag(ResultSize.TAG, "2-10").timer();
+        assertThat(histogramConfigOf(timer).isPercentileHistogram()).isTrue();
+    }
+
+    @Test
+    void shouldTimeRepositoryInvocationsWithResultSize() throws Exception {
+        existingUser(generateUser());
+
+        mockMvc.perform(get("/v1/users")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/" + RepositoryMetricsInterceptor.METRIC_NAME)
+                        .param("tag", "repository:UserRepository", "method:findByIdGreaterThanOrderByIdAsc", "outcome:SUCCESS", "result.size:1"))
+                .andDo(log())
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                .tag("repository", "UserRepository")
+                .tag("method", "findByIdGreaterThanOrderByIdAsc")
+                .timer();
+        assertThat(timer.count()).isPositive();
+        assertThat(histogramConfigOf(timer).isPercentileHistogram()).isTrue();
+        assertThat(meterRegistry.find("spring.data.repository.invocations").timers()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRegisterRepositoryTimersOnce_perMethodOutcomeAndResultSize() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger registrations = new AtomicInteger();
+        ProxyFactory proxyFactory = new ProxyFactory(new ArrayList<>(List.of("a", "b")));
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(() -> {
+            registrations.incrementAndGet();
+            return registry;
+        }, "TestRepository"));
+        List<String> repository = (List<String>) proxyFactory.getProxy();
+
+        for (int i = 0; i < 3; i++) {
+            repository.subList(0, 2);
+            assertThatThrownBy(() -> repository.get(5)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        assertThat(registrations).hasValue(2);
+        assertThat(registry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                           .tags("repository", "TestRepository", "method", "subList", "outcome", "SUCCESS", ResultSize.TAG, "2-10")
+                           .timer().count()).isEqualTo(3);
+        assertThat(registry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                           .tags("repository", "TestRepository", "method", "get", "outcome", "ERROR", ResultSize.TAG, "none")
+                           .timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldBucketResultSizes() {
+        assertThat(ResultSize.ofCount(0)).isEqualTo(ResultSize.EMPTY);
+        assertThat(ResultSize.ofCount(1)).isEqualTo(ResultSize.ONE);
+        assertThat(ResultSize.ofCount(10)).isEqualTo(ResultSize.UP_TO_10);
+        assertThat(ResultSize.ofCount(11)).isEqualTo(ResultSize.UP_TO_100);
+        assertThat(ResultSize.ofCount(1000)).isEqualTo(ResultSize.UP_TO_1000);
+        assertThat(ResultSize.ofCount(1001)).isEqualTo(ResultSize.MORE);
+        assertThat(ResultSize.of(null)).isEqualTo(ResultSize.NONE);
+        assertThat(ResultSize.of(Optional.empty())).isEqualTo(ResultSize.EMPTY);
+        assertThat(ResultSize.of(new long[3])).isEqualTo(ResultSize.UP_TO_10);
+    }
+
+    /**
+     * The in-memory registry used by the tests does not publish histogram buckets, so the distribution
+     * configured for the meter is checked instead.
+     */
+    private DistributionStatisticConfig histogramConfigOf(Timer timer) {
+        return propertiesMeterFilter.configure(timer.getId(), DistributionStatisticConfig.DEFAULT);
+    }
+
+    private static User generateUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString());
+    }
+}
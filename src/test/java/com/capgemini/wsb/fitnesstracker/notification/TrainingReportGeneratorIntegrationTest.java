@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDTO;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.capgemini.wsb.fitnesstracker.training.internal.ActivityType.CYCLING;
+import static com.capgemini.wsb.fitnesstracker.training.internal.ActivityType.RUNNING;
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TrainingReportGeneratorIntegrationTest extends IntegrationTestBase {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 4, 1);
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private TrainingReportGenerator trainingReportGenerator;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Test
+    void shouldSendWeeklyReportToEveryUser_processingUsersInChunks() throws Exception {
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        User user3 = existingUser(generateClient());
+        User user4 = existingUser(generateClient());
+        User user5 = existingUser(generateClient());
+        createTraining(user1, LocalDateTime.of(2024, 4, 1, 10, 0), 60, RUNNING, 10.0);
+        createTraining(user1, LocalDateTime.of(2024, 4, 3, 10, 0), 30, RUNNING, 5.0);
+        createTraining(user1, LocalDateTime.of(2024, 4, 7, 18, 0), 120, CYCLING, 40.0);
+        createTraining(user1, LocalDateTime.of(2024, 4, 8, 10, 0), 60, RUNNING, 10.0);
+        createTraining(user3, LocalDateTime.of(2024, 3, 31, 10, 0), 60, CYCLING, 20.0);
+        createTraining(user5, LocalDateTime.of(2024, 4, 5, 10, 0), 45, RUNNING, 7.5);
+
+        long sent = trainingReportGenerator.generateReports(WEEK_START);
+
+        assertThat(sent).isEqualTo(5);
+        assertThat(greenMail.waitForIncomingEmail(Duration.ofSeconds(10).toMillis(), 5)).isTrue();
+        Map<String, String> contentByRecipient = new HashMap<>();
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            assertThat(message.getSubject()).isEqualTo("Your training summary for the week of 2024-04-01");
+            contentByRecipient.put(GreenMailUtil.getAddressList(message.getAllRecipients()), GreenMailUtil.getBody(message));
+        }
+        assertThat(contentByRecipient).containsOnlyKeys(user1.getEmail(), user2.getEmail(), user3.getEmail(), user4.getEmail(), user5.getEmail());
+        assertThat(contentByRecipient.get(user1.getEmail()))
+                .contains("you completed 3 trainings")
+                .contains("- RUNNING: 2 trainings, 15.0 km, 90 min")
+                .contains("- CYCLING: 1 trainings, 40.0 km, 120 min")
+                .contains("In total you have 4 trainings registered.");
+        assertThat(contentByRecipient.get(user2.getEmail()))
+                .contains("you completed 0 trainings")
+                .contains("In total you have 0 trainings registered.");
+        assertThat(contentByRecipient.get(user3.getEmail()))
+                .contains("you completed 0 trainings")
+                .contains("In total you have 1 trainings registered.");
+        assertThat(contentByRecipient.get(user5.getEmail()))
+                .contains("- RUNNING: 1 trainings, 7.5 km, 45 min");
+    }
+
+    private void createTraining(User user, LocalDateTime startTime, int minutes, ActivityType activityType, double distance) {
+        trainingService.createTraining(new TrainingDTO(null,
+                                                       user.getId(),
+                                                       Date.from(startTime.toInstant(ZoneOffset.UTC)),
+                                                       Date.from(startTime.plusMinutes(minutes).toInstant(ZoneOffset.UTC)),
+                                                       activityType,
+                                                       distance,
+                                                       distance / minutes * 60));
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@domain.com");
+    }
+}
@@ -0,0 +1,379 @@
+package com.capgemini.wsb.fitnesstracker.statistics;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupGranularity;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.UserStatistics;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class StatisticsApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatisticsProvider statisticsProvider;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldMaintainStatisticsIncrementally_andRebuildThemIdentically() throws Exception {
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+
+        String createdTraining = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                        """.formatted(user1.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                            {"userId": %s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T12:00:00", "activityType": "CYCLING", "distance": 40.0, "averageSpeed": 20.0},
+                            {"userId": %s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T10:30:00", "activityType": "WALKING", "distance": 3.0, "averageSpeed": 6.0}
+                        ]
+                        """.formatted(user1.getId(), user2.getId())))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(createdTraining, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:30:00", "activityType": "RUNNING", "distance": 12.0, "averageSpeed": 8.0}
+                        """))
+                .andExpect(status().isOk());
+
+        String incrementalStatistics = mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user1.getId()))
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(52.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(1029 + 1050))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(1))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(123));
+
+        mockMvc.perform(post("/v1/statistics/rebuild"))
+                .andExpect(status().isNoContent());
+
+        String rebuiltStatistics = mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(JsonPath.<Integer>read(rebuiltStatistics, "$.totalTrainings"))
+                .isEqualTo(JsonPath.<Integer>read(incrementalStatistics, "$.totalTrainings"));
+        assertThat(JsonPath.<Integer>read(rebuiltStatistics, "$.totalCaloriesBurned"))
+                .isEqualTo(JsonPath.<Integer>read(incrementalStatistics, "$.totalCaloriesBurned"));
+        assertThat(JsonPath.<Double>read(rebuiltStatistics, "$.totalDistance"))
+                .isCloseTo(JsonPath.<Double>read(incrementalStatistics, "$.totalDistance"), within(1e-9));
+    }
+
+    @Test
+    void shouldMaintainRollupsPerBucket_andMoveTrainingBetweenBuckets() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                            {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0},
+                            {"userId": %1$s, "startTime": "2024-04-03T10:00:00", "endTime": "2024-04-03T10:30:00", "activityType": "RUNNING", "distance": 5.0, "averageSpeed": 10.0},
+                            {"userId": %1$s, "startTime": "2024-04-03T12:00:00", "endTime": "2024-04-03T14:00:00", "activityType": "CYCLING", "distance": 40.0, "averageSpeed": 20.0}
+                        ]
+                        """.formatted(user1.getId())))
+                .andExpect(status().isOk());
+        String movedTraining = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-09T10:00:00", "endTime": "2024-04-09T11:00:00", "activityType": "RUNNING", "distance": 8.0, "averageSpeed": 8.0}
+                        """.formatted(user1.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "WEEK").param("from", "2024-04-03").param("to", "2024-05-01"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].totalTrainings").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(15.0))
+                .andExpect(jsonPath("$[0].totalDurationSeconds").value(5400))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[2].bucketStart").value("2024-04-08"))
+                .andExpect(jsonPath("$[2].totalTrainings").value(1));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(movedTraining, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "RUNNING", "distance": 8.0, "averageSpeed": 8.0}
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "WEEK").param("from", "2024-04-01").param("to", "2024-05-01")
+                                .param("activityType", "RUNNING"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].totalTrainings").value(3))
+                .andExpect(jsonPath("$[0].totalDistance").value(23.0));
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "MONTH").param("from", "2024-04-01").param("to", "2024-05-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].totalTrainings").value(3));
+
+        mockMvc.perform(post("/v1/statistics/rebuild"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "DAY").param("from", "2024-04-01").param("to", "2024-04-10"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[1].bucketStart").value("2024-04-02"))
+                .andExpect(jsonPath("$[1].totalDistance").value(8.0));
+    }
+
+    @Test
+    void shouldRejectRollupQuery_whenRangeIsEmpty() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "DAY").param("from", "2024-04-10").param("to", "2024-04-01"))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotServeStaleStatistics_whenTrainingsAreWritten() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andExpect(status().isNotFound());
+        String createdTraining = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                        """.formatted(user1.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDistance").value(10.0));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", JsonPath.<Integer>read(createdTraining, "$.id")).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 12.5, "averageSpeed": 12.5}
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(1))
+                .andExpect(jsonPath("$.totalDistance").value(12.5));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldLoadStatisticsOnce_whenReadConcurrently() throws Exception {
+        User user1 = existingUser(generateClient());
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                        """.formatted(user1.getId())))
+                .andExpect(status().isCreated());
+        EntityStatistics statisticsLoads = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics()
+                .getEntityStatistics(Statistics.class.getName());
+        long loadsBefore = statisticsLoads.getLoadCount();
+
+        int readers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Optional<UserStatistics>>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return statisticsProvider.getUserStatistics(user1.getId());
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<UserStatistics>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).map(UserStatistics::totalTrainings).contains(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statisticsLoads.getLoadCount() - loadsBefore).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldCreateStatisticsOnce_whenFirstTrainingsOfUserAreSavedConcurrently() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                                    {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 1.0, "averageSpeed": 1.0}
+                                    """.formatted(user1.getId())))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(201);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(writers))
+                .andExpect(jsonPath("$.totalDistance").value((double) writers));
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "MONTH").param("from", "2024-04-01").param("to", "2024-05-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].totalTrainings").value(writers));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldKeepTrainingsSavedWhileStatisticsAreRebuilt() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        int writers = 4;
+        int trainingsPerWriter = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int created = 0;
+                    for (int j = 0; j < trainingsPerWriter; j++) {
+                        created += mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                                                {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 1.0, "averageSpeed": 1.0}
+                                                """.formatted(user1.getId())))
+                                .andReturn().getResponse().getStatus() == 201 ? 1 : 0;
+                    }
+                    return created;
+                }));
+            }
+            Future<?> rebuilds = executor.submit(() -> {
+                start.await();
+                while (results.stream().anyMatch(result -> !result.isDone())) {
+                    mockMvc.perform(post("/v1/statistics/rebuild")).andExpect(status().isNoContent());
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(trainingsPerWriter);
+            }
+            rebuilds.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(writers * trainingsPerWriter))
+                .andExpect(jsonPath("$.totalDistance").value((double) writers * trainingsPerWriter));
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "MONTH").param("from", "2024-04-01").param("to", "2024-05-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].totalTrainings").value(writers * trainingsPerWriter));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldWriteStatisticsAndRollupsOncePerBatch() throws Exception {
+        User user1 = existingUser(generateClient());
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-01T06:00:00", "endTime": "2024-04-01T07:00:00", "activityType": "RUNNING", "distance": 2.0, "averageSpeed": 2.0}
+                        """.formatted(user1.getId())))
+                .andExpect(status().isCreated());
+        org.hibernate.stat.Statistics hibernateStatistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        EntityStatistics statisticsWrites = hibernateStatistics.getEntityStatistics(Statistics.class.getName());
+        EntityStatistics rollupWrites = hibernateStatistics.getEntityStatistics(TrainingRollup.class.getName());
+        long statisticsWritesBefore = statisticsWrites.getInsertCount() + statisticsWrites.getUpdateCount();
+        long rollupWritesBefore = rollupWrites.getInsertCount() + rollupWrites.getUpdateCount();
+
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                            {"userId": %1$s, "startTime": "2024-04-01T08:00:00", "endTime": "2024-04-01T09:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0},
+                            {"userId": %1$s, "startTime": "2024-04-01T12:00:00", "endTime": "2024-04-01T12:30:00", "activityType": "RUNNING", "distance": 5.0, "averageSpeed": 10.0},
+                            {"userId": %1$s, "startTime": "2024-04-01T18:00:00", "endTime": "2024-04-01T19:00:00", "activityType": "RUNNING", "distance": 8.0, "averageSpeed": 8.0}
+                        ]
+                        """.formatted(user1.getId())))
+                .andExpect(status().isOk());
+
+        assertThat(statisticsWrites.getInsertCount() + statisticsWrites.getUpdateCount() - statisticsWritesBefore).isEqualTo(1);
+        assertThat(rollupWrites.getInsertCount() + rollupWrites.getUpdateCount() - rollupWritesBefore).isEqualTo(RollupGranularity.values().length);
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(4))
+                .andExpect(jsonPath("$.totalDistance").value(25.0));
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user1.getId())
+                                .param("granularity", "DAY").param("from", "2024-04-01").param("to", "2024-04-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].totalTrainings").value(4))
+                .andExpect(jsonPath("$[0].totalDistance").value(25.0));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenUserHasNoTrainings() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
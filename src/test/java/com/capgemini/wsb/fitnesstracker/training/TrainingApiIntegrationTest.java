@@ -5,21 +5,38 @@ import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.time.LocalDate.now;
 import static java.util.UUID.randomUUID;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @IntegrationTest
@@ -30,6 +47,74 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldIssueConstantNumberOfStatements_whenGettingTrainingsOfManyUsers() throws Exception {
+        User user1 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        List<Long> statementsForOneUser = statementsPerEndpoint(user1);
+
+        for (int i = 0; i < 5; i++) {
+            User user = existingUser(generateClient());
+            persistTraining(generateTrainingWithDetails(user, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+            persistTraining(generateTrainingWithDetails(user, "2024-05-18 19:00:00", "2024-05-18 20:30:00", ActivityType.RUNNING, 7, 10.5));
+        }
+        List<Long> statementsForManyUsers = statementsPerEndpoint(user1);
+
+        assertThat(statementsForManyUsers).isEqualTo(statementsForOneUser);
+        assertThat(statementsForManyUsers).allMatch(statements -> statements == 1);
+    }
+
+    private List<Long> statementsPerEndpoint(User user) throws Exception {
+        List<Long> statements = new ArrayList<>();
+        statements.add(countStatements(get("/v1/trainings")));
+        statements.add(countStatements(get("/v1/trainings/flat")));
+        statements.add(countStatements(get("/v1/trainings/{userId}", user.getId())));
+        statements.add(countStatements(get("/v1/trainings/{userId}/flat", user.getId())));
+        statements.add(countStatements(get("/v1/trainings/finished/{afterTime}", "2024-05-01")));
+        statements.add(countStatements(get("/v1/trainings/finished/{afterTime}/flat", "2024-05-01")));
+        statements.add(countStatements(get("/v1/trainings/activityType").param("activityType", "RUNNING")));
+        statements.add(countStatements(get("/v1/trainings/activityType/flat").param("activityType", "RUNNING")));
+        return statements;
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void shouldReturnFlatTrainings_whenGettingAllAndFinishedTrainingsInFlatForm() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-18 19:00:00", "2024-05-18 20:30:00", ActivityType.RUNNING, 7, 10.5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-20 19:00:00", "2024-05-20 20:30:00", ActivityType.CYCLING, 20, 22.5));
+
+        mockMvc.perform(get("/v1/trainings/flat").param("size", "1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training1.getId()))
+                .andExpect(jsonPath("$[0].userId").value(user1.getId()))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        mockMvc.perform(get("/v1/trainings/finished/{afterTime}/flat", "2024-05-19").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training2.getId()))
+                .andExpect(jsonPath("$[0].userId").value(user1.getId()))
+                .andExpect(jsonPath("$[0].distance").value(20.0))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
+    }
+
     @Test
     void shouldReturnAllTrainings_whenGettingAllTrainings() throws Exception {
 
@@ -55,6 +140,55 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnTrainingsPageByPageOrderedByEndTime_whenGettingAllTrainingsWithPageSize() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training3 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.CYCLING, 30, 20.5));
+
+        String nextPage = mockMvc.perform(get("/v1/trainings").param("size", "2").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(training2.getId()))
+                .andExpect(jsonPath("$[1].id").value(training3.getId()))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        mockMvc.perform(get(nextPage.substring(1, nextPage.indexOf('>'))).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training1.getId()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldStreamAllTrainingsAsNdjson_whenExportingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.RUNNING));
+        Training training2 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.CYCLING));
+
+        MvcResult asyncResult = mockMvc.perform(get("/v1/trainings/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(JsonPath.<Integer>read(lines[0], "$.id").longValue()).isEqualTo(training1.getId());
+        assertThat(JsonPath.<Integer>read(lines[0], "$.user.id").longValue()).isEqualTo(user1.getId());
+        assertThat(JsonPath.<String>read(lines[1], "$.activityType")).isEqualTo(training2.getActivityType().name());
+    }
+
     @Test
     void shouldReturnAllTrainingsForDedicatedUser_whenGettingAllTrainingsForDedicatedUser() throws Exception {
 
@@ -102,6 +236,64 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnFinishedTrainingsAfterTimestamp_whenGettingAllFinishedTrainingsAfterTime() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-19 17:00:00", "2024-05-19 18:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(get("/v1/trainings/finished/{afterTime}", training1.getStartTime().toInstant().toString()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training1.getId()));
+    }
+
+    @Test
+    void shouldReturnTrainingsEndedWithinRangePageByPage_whenGettingFinishedTrainingsBetween() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-16 19:00:00", "2024-05-16 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.CYCLING, 30, 20.5));
+        Training training3 = persistTraining(generateTrainingWithDetails(user2, "2024-05-18 19:00:00", "2024-05-18 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        Training training4 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-20 19:00:00", "2024-05-20 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        String from = training1.getEndTime().toInstant().toString();
+        String to = training4.getEndTime().toInstant().plusSeconds(1).toString();
+
+        String nextPage = mockMvc.perform(get("/v1/trainings/finished?from={from}&to={to}&size=2", from, to))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(training1.getId()))
+                .andExpect(jsonPath("$[1].id").value(training2.getId()))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        mockMvc.perform(get(nextPage.substring(1, nextPage.indexOf('>'))))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(training3.getId()))
+                .andExpect(jsonPath("$[1].id").value(training4.getId()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        mockMvc.perform(get("/v1/trainings/finished").param("from", from).param("to", to).param("userId", user2.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training3.getId()));
+    }
+
+    @Test
+    void shouldRejectReversedRange_whenGettingFinishedTrainingsBetween() throws Exception {
+
+        mockMvc.perform(get("/v1/trainings/finished").param("from", "2024-05-20T00:00:00Z").param("to", "2024-05-18T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllTrainingByActivityType_whenGettingAllTrainingByActivityType() throws Exception {
 
@@ -155,6 +347,55 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRenderUserOfTraining_whenCreatingTrainingForCachedUser() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        for (String day : List.of("2024-04-01", "2024-04-02")) {
+            mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                            {"userId": %s, "startTime": "%sT10:00:00", "endTime": "%sT11:00:00", "activityType": "RUNNING", "distance": 10.0, "averageSpeed": 10.0}
+                            """.formatted(user1.getId(), day, day)))
+                    .andDo(log())
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.user.id").value(user1.getId()))
+                    .andExpect(jsonPath("$.user.firstName").value(user1.getFirstName()))
+                    .andExpect(jsonPath("$.user.email").value(user1.getEmail()))
+                    .andExpect(jsonPath("$.user.hibernateLazyInitializer").doesNotExist());
+        }
+    }
+
+    @Test
+    void shouldPersistValidTrainingsAndRejectInvalidOnes_whenCreatingTrainingsInBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+
+        String requestBody = """
+                [
+                    {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.52, "averageSpeed": 8.2},
+                    {"userId": %s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "CYCLING", "distance": 30.0, "averageSpeed": 25.1},
+                    {"userId": -1, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "CYCLING", "distance": 30.0, "averageSpeed": 25.1},
+                    {"userId": %s, "startTime": "2024-04-02T10:00:00", "activityType": "CYCLING", "distance": 30.0, "averageSpeed": 25.1}
+                ]
+                """.formatted(user1.getId(), user2.getId(), user1.getId());
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].trainingId").isNumber())
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$[2].error").value("User with ID=-1 was not found"))
+                .andExpect(jsonPath("$[3].status").value("REJECTED"))
+                .andExpect(jsonPath("$[3].index").value(3));
+
+        assertThat(getAllTrainings())
+                .extracting(training -> training.getUser().getId())
+                .containsExactlyInAnyOrder(user1.getId(), user2.getId());
+    }
+
     @Test
     void shouldUpdateTraining_whenUpdatingTraining() throws Exception {
 
@@ -182,6 +423,134 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$.averageSpeed").value(0.0));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldWriteOnlyChangedColumns_whenPatchingTraining() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        List<String> updates;
+        try {
+            mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                            {"version": 0, "distance": 21.5}
+                            """))
+                    .andDo(log())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.distance").value(21.5))
+                    .andExpect(jsonPath("$.averageSpeed").value(11.5))
+                    .andExpect(jsonPath("$.activityType").value(ActivityType.RUNNING.toString()))
+                    .andExpect(jsonPath("$.version").value(1));
+            updates = jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class)
+                    .stream()
+                    .filter(sql -> sql.contains("update trainings"))
+                    .toList();
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+
+        assertThat(updates).singleElement().satisfies(sql -> {
+            assertThat(sql.substring(sql.indexOf(" set "), sql.indexOf(" where ")))
+                    .contains("distance=?", "version=(version+1)")
+                    .doesNotContain("start_time", "end_time", "activity_type", "average_speed");
+            assertThat(sql.substring(sql.indexOf(" where "))).contains("version=?");
+        });
+    }
+
+    @Test
+    void shouldReturnPatchedState_whenTrainingWasLoadedInSameTransaction() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "distance": 21.5}
+                        """))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distance").value(21.5))
+                .andExpect(jsonPath("$.averageSpeed").value(11.5))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldRejectPatchBasedOnStaleVersion_withConflict() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.RUNNING));
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "activityType": "CYCLING"}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "activityType": "TENNIS"}
+                        """))
+                .andDo(log())
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activityType").value(ActivityType.CYCLING.toString()));
+    }
+
+    @Test
+    void shouldRejectPatch_whenTrainingWouldEndBeforeItStarts() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "startTime": "2024-05-19T21:00:00"}
+                        """))
+                .andDo(log())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertThat(result.getResolvedException()).hasMessage("endTime must not be before startTime"));
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].version").value(0));
+    }
+
+    @Test
+    void shouldRejectPatch_whenTrainingIsMissingOrVersionIsAbsent() throws Exception {
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "distance": 1.0}
+                        """))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"distance": 1.0}
+                        """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectPatch_whenItChangesNothing() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.RUNNING));
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0}
+                        """))
+                .andDo(log())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertThat(result.getResolvedException()).hasMessage("at least one attribute to change is required"));
+
+        mockMvc.perform(patch("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"version": 0, "distance": 1.0}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
     private static User generateClient() {
         return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
     }
@@ -0,0 +1,112 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on H2 for the SQL generated by every filtering finder of the {@link TrainingRepository}
+ * and fails if the {@code trainings} table is read with a full table scan.
+ */
+@IntegrationTest
+@Transactional
+class TrainingQueryPlanIntegrationTest extends IntegrationTestBase {
+
+    private static final String TRAININGS_TABLE_SCAN = "PUBLIC.TRAININGS.tableScan";
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByUserId_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findByUserId(1L));
+    }
+
+    @Test
+    void findDtosByUserId_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findDtosByUserId(1L));
+    }
+
+    @Test
+    void findByActivityType_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findByActivityType(ActivityType.RUNNING));
+    }
+
+    @Test
+    void findDtosByActivityType_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findDtosByActivityType(ActivityType.RUNNING));
+    }
+
+    @Test
+    void findByEndTimeAfter_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findByEndTimeAfter(new Date()));
+    }
+
+    @Test
+    void findPageAfter_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findPageAfter(new Date(), 1L, Limit.of(10)));
+    }
+
+    @Test
+    void findPageEndedBetween_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findPageEndedBetween(new Date(0), new Date(), 0, Limit.of(10)));
+    }
+
+    @Test
+    void findPageByUserIdEndedBetween_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findPageByUserIdEndedBetween(1L, new Date(0), new Date(), 0, Limit.of(10)));
+    }
+
+    @Test
+    void findDtosByUserIdBetweenAndEndTimeBetween_shouldUseIndex() {
+        assertNoTableScan(() -> trainingRepository.findDtosByUserIdBetweenAndEndTimeBetween(1L, 1000L, new Date(0), new Date()));
+    }
+
+    private void assertNoTableScan(Runnable finder) {
+        List<String> statements = captureTrainingQueries(finder);
+
+        assertThat(statements).isNotEmpty();
+        statements.forEach(sql -> assertThat(explain(sql))
+                .as("query plan of %s", sql)
+                .doesNotContain(TRAININGS_TABLE_SCAN));
+    }
+
+    private List<String> captureTrainingQueries(Runnable finder) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            finder.run();
+            return jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class)
+                    .stream()
+                    .filter(sql -> sql.startsWith("select") && sql.contains(" from trainings "))
+                    .toList();
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                                  statement -> {
+                                      int parameters = statement.getParameterMetaData().getParameterCount();
+                                      for (int i = 1; i <= parameters; i++) {
+                                          statement.setNull(i, Types.NULL);
+                                      }
+                                  },
+                                  resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+}
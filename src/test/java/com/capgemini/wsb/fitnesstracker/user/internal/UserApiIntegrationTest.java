@@ -3,22 +3,37 @@ package com.capgemini.wsb.fitnesstracker.user.internal;
 import com.capgemini.wsb.fitnesstracker.IntegrationTest;
 import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static java.time.format.DateTimeFormatter.ISO_DATE;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,6 +45,27 @@ class UserApiIntegrationTest extends IntegrationTestBase {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private UserProvider userProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailTrigramIndex emailTrigramIndex;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     void shouldReturnAllUsers_whenGettingAllUsers() throws Exception {
         User user1 = existingUser(generateUser());
@@ -50,6 +86,36 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[2]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnUsersPageByPage_whenGettingAllUsersWithPageSize() throws Exception {
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+        User user3 = existingUser(generateUser());
+
+        String nextPage = mockMvc.perform(get("/v1/users").param("size", "2").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(user1.getId().intValue()))
+                .andExpect(jsonPath("$[1].id").value(user2.getId().intValue()))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        mockMvc.perform(get(nextPage.substring(1, nextPage.indexOf('>'))).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(user3.getId().intValue()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenGettingAllUsersWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/v1/users").param("cursor", "not-a-cursor").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturnAllSimpleUsers_whenGettingAllUsers() throws Exception {
         User user1 = existingUser(generateUser());
@@ -64,6 +130,8 @@ class UserApiIntegrationTest extends IntegrationTestBase {
 
                 .andExpect(jsonPath("$[1].firstName").value(user2.getFirstName()))
                 .andExpect(jsonPath("$[1].lastName").value(user2.getLastName()))
+                .andExpect(jsonPath("$[1].email").doesNotExist())
+                .andExpect(jsonPath("$[1].birthdate").doesNotExist())
 
                 .andExpect(jsonPath("$[2]").doesNotExist());
     }
@@ -84,8 +152,9 @@ class UserApiIntegrationTest extends IntegrationTestBase {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void shouldReturnDetailsAboutUser_whenGettingUserByEmail() throws Exception {
-        User user1 = existingUser(generateUser());
+        User user1 = userService.createUser(generateUser());
 
         mockMvc.perform(get("/v1/users/email").param("email", user1.getEmail()).contentType(MediaType.APPLICATION_JSON))
                 .andDo(log())
@@ -95,6 +164,28 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[0].email").value(user1.getEmail()));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldReturnUsersContainingEmailFragment_whenSearchingUsersByEmail() throws Exception {
+        String marker = randomUUID().toString();
+        User user1 = userService.createUser(generateUserWithEmail("Mike.Scott." + marker + "@Domain.com"));
+        User user2 = userService.createUser(generateUserWithEmail("dwight.schrute." + marker + "@domain.com"));
+        userService.createUser(generateUserWithEmail("jim.halpert@domain.com"));
+
+        mockMvc.perform(get("/v1/users/search/email").param("email", "SCOTT." + marker).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(user1.getId().intValue()));
+
+        mockMvc.perform(get("/v1/users/search/email").param("email", marker + "@DOMAIN").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(user1.getId().intValue()))
+                .andExpect(jsonPath("$[1].id").value(user2.getId().intValue()));
+    }
+
     @Test
     void shouldReturnAllUsersOlderThan_whenGettingAllUsersOlderThan() throws Exception {
         User user1 = existingUser(generateUserWithDate(LocalDate.of(2000, 8, 11)));
@@ -112,6 +203,33 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnPageOfUsersOlderThan_whenGettingUsersOlderThanWithLimitAndOffset() throws Exception {
+        User user1 = existingUser(generateUserWithDate(LocalDate.of(1980, 1, 1)));
+        User user2 = existingUser(generateUserWithDate(LocalDate.of(1990, 1, 1)));
+        existingUser(generateUserWithDate(LocalDate.of(2000, 1, 1)));
+        existingUser(generateUserWithDate(LocalDate.of(2024, 8, 11)));
+
+        mockMvc.perform(get("/v1/users/older/{time}", LocalDate.of(2024, 8, 10))
+                        .param("offset", "1")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(user2.getId().intValue()));
+
+        mockMvc.perform(get("/v1/users/search/age")
+                        .param("age", "20")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(user1.getId().intValue()))
+                .andExpect(jsonPath("$[1].id").value(user2.getId().intValue()));
+    }
+
     @Test
     void shouldRemoveUserFromRepository_whenDeletingClient() throws Exception {
         User user1 = existingUser(generateUser());
@@ -203,6 +321,133 @@ class UserApiIntegrationTest extends IntegrationTestBase {
         assertThat(user.getEmail()).isEqualTo(USER_EMAIL);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotReturnStaleUser_whenGettingUserAfterUpdate() throws Exception {
+        User user1 = existingUser(generateUser());
+        String previousEmail = user1.getEmail();
+
+        mockMvc.perform(get("/v1/users/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value(user1.getFirstName()));
+        assertThat(userProvider.getUserByEmail(previousEmail)).isPresent();
+
+        mockMvc.perform(put("/v1/users/{userId}", user1.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        {"firstName": "Mike", "lastName": "Scott", "birthdate": "1999-09-29", "email": "mike.scott@domain.com"}
+                                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Mike"))
+                .andExpect(jsonPath("$.email").value("mike.scott@domain.com"));
+        assertThat(userProvider.getUserByEmail(previousEmail)).isEmpty();
+        assertThat(userProvider.getUserByEmail("mike.scott@domain.com")).map(UserDto::firstName).contains("Mike");
+
+        mockMvc.perform(delete("/v1/users/{userId}", user1.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/users/{userId}", user1.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(userProvider.getUserByEmail("mike.scott@domain.com")).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotKeepPreviousUserCached_whenLookedUpDuringUpdate() throws Exception {
+        User user1 = existingUser(generateUser());
+        User changed = new User("Changed", user1.getLastName(), user1.getBirthdate(), user1.getEmail());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(user1.getId(), changed);
+            UserDto concurrentLookup = CompletableFuture.supplyAsync(() -> userProvider.getUser(user1.getId()).orElseThrow())
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertThat(concurrentLookup.firstName()).isEqualTo(user1.getFirstName());
+        });
+
+        assertThat(userProvider.getUser(user1.getId())).map(UserDto::firstName).contains("Changed");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldKeepUsersWrittenWhileEmailIndexIsRebuilt() {
+        String marker = randomUUID().toString();
+        User user1 = existingUser(generateUserWithEmail("before." + marker + "@domain.com"));
+        List<User> writtenDuringRebuild = new ArrayList<>();
+
+        emailTrigramIndex.rebuild(() -> {
+            List<UserEmail> emails = userRepository.findAllEmails();
+            assertThat(emailTrigramIndex.findIdsContaining(marker)).isEmpty();
+            writtenDuringRebuild.add(userService.createUser(generateUserWithEmail("during." + marker + "@domain.com")));
+            return emails;
+        });
+
+        assertThat(emailTrigramIndex.findIdsContaining(marker)).hasValueSatisfying(ids -> assertThat(ids)
+                .containsExactly(user1.getId(), writtenDuringRebuild.get(0).getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldIndexEmailChanges_onlyOnceTheyAreCommitted() {
+        String marker = randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.createUser(generateUserWithEmail("rolled.back." + marker + "@domain.com"));
+            status.setRollbackOnly();
+        });
+        assertThat(emailTrigramIndex.findIdsContaining(marker)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+
+        User user1 = transactionTemplate.execute(status -> {
+            User created = userService.createUser(generateUserWithEmail("created." + marker + "@domain.com"));
+            assertThat(emailTrigramIndex.findIdsContaining(marker)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+            return created;
+        });
+        assertThat(emailTrigramIndex.findIdsContaining(marker)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(user1.getId()));
+
+        userService.updateUser(user1.getId(), generateUserWithEmail("updated." + randomUUID() + "@domain.com"));
+        assertThat(emailTrigramIndex.findIdsContaining(marker)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+
+        String updatedMarker = randomUUID().toString();
+        userService.updateUser(user1.getId(), generateUserWithEmail("updated." + updatedMarker + "@domain.com"));
+        assertThat(emailTrigramIndex.findIdsContaining(updatedMarker)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(user1.getId()));
+
+        userService.deleteUser(user1.getId());
+        assertThat(emailTrigramIndex.findIdsContaining(updatedMarker)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void shouldCacheUserSnapshots_insteadOfEntities() {
+        User user1 = existingUser(generateUser());
+        String firstName = user1.getFirstName();
+
+        assertThat(userProvider.getUser(user1.getId())).contains(userMapper.toDto(user1));
+        user1.setFirstName("Changed in memory");
+
+        assertThat(Objects.requireNonNull(cacheManager.getCache(UserServiceImpl.USERS_CACHE)).get(user1.getId()))
+                .extracting(Cache.ValueWrapper::get)
+                .isInstanceOf(UserDto.class);
+        assertThat(userProvider.getUser(user1.getId())).map(UserDto::firstName).contains(firstName);
+    }
+
+    @Test
+    void shouldExposeUserCacheMetrics() throws Exception {
+        User user1 = existingUser(generateUser());
+
+        mockMvc.perform(get("/v1/users/{userId}", user1.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/{userId}", user1.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:users", "result:hit"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+        mockMvc.perform(get("/actuator/metrics/cache.evictions").param("tag", "cache:users"))
+                .andExpect(status().isOk());
+    }
+
     public static User generateUser() {
         return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString());
     }
@@ -211,5 +456,9 @@ class UserApiIntegrationTest extends IntegrationTestBase {
         return new User(randomUUID().toString(), randomUUID().toString(), date, randomUUID().toString());
     }
 
+    private static User generateUserWithEmail(String email) {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), email);
+    }
+
 
 }
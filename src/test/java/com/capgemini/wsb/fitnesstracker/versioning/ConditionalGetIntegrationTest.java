@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.versioning;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The versions are bumped after the writing transaction commits, so the tests run without a test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class ConditionalGetIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldAnswerNotModifiedWithoutQueryingDatabase_whenTrainingsOfUserAreUnchanged() throws Exception {
+        User user1 = existingUser(generateClient());
+        createTraining(user1, 10.0);
+        String eTag = eTagOf("/v1/trainings/{userId}", user1.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void shouldChangeETags_whenTrainingIsCreated() throws Exception {
+        User user1 = existingUser(generateClient());
+        String userTrainingsETag = eTagOf("/v1/trainings/{userId}", user1.getId());
+        String allTrainingsETag = eTagOf("/v1/trainings");
+
+        createTraining(user1, 5.0);
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, userTrainingsETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/trainings").header(HttpHeaders.IF_NONE_MATCH, allTrainingsETag))
+                .andExpect(status().isOk());
+        assertThat(eTagOf("/v1/trainings/{userId}", user1.getId())).isNotEqualTo(userTrainingsETag);
+    }
+
+    @Test
+    void shouldChangeETagsOfUserAndItsTrainings_whenUserIsUpdated() throws Exception {
+        User user1 = existingUser(generateClient());
+        String userETag = eTagOf("/v1/users/{id}", user1.getId());
+        String trainingsETag = eTagOf("/v1/trainings/{userId}", user1.getId());
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"firstName": "Changed", "lastName": "%s", "birthdate": "1990-01-01", "email": "%s"}
+                        """.formatted(user1.getLastName(), user1.getEmail())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, trainingsETag))
+                .andExpect(status().isOk());
+    }
+
+    private String eTagOf(String uriTemplate, Object... uriVariables) throws Exception {
+        String eTag = mockMvc.perform(get(uriTemplate, uriVariables))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+        return eTag;
+    }
+
+    private void createTraining(User user, double distance) throws Exception {
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"userId": %s, "startTime": "2024-04-10T10:00:00", "endTime": "2024-04-10T11:00:00", "activityType": "RUNNING", "distance": %s, "averageSpeed": %s}
+                        """.formatted(user.getId(), distance, distance)))
+                .andExpect(status().isCreated());
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}